@@ -0,0 +1,75 @@
+package net.coderodde.missionaries;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * This listener emits a {@code net.coderodde.missionaries.Search} Java Flight
+ * Recorder event per search. The event is committed only while a recording 
+ * has it enabled. As {@code jdk.jfr} is not part of Java 8, this class lives
+ * in its own source set, compiled for Java 11 by the {@code jfr} profile.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class JfrSearchListener implements SearchListener {
+    
+    @Override
+    public void onSearchFinished(String algorithmName, 
+                                 SearchStatistics statistics) {
+        SearchEvent event = new SearchEvent();
+        
+        if (!event.isEnabled()) {
+            return;
+        }
+        
+        event.algorithm = algorithmName;
+        event.generatedNodes = statistics.getNumberOfGeneratedNodes();
+        event.expandedNodes = statistics.getNumberOfExpandedNodes();
+        event.rejectedDuplicates = statistics.getNumberOfRejectedDuplicates();
+        event.peakFrontierSize = statistics.getPeakFrontierSize();
+        event.visitedNodes = statistics.getNumberOfVisitedNodes();
+        event.searchDuration = 
+                statistics.getPhaseDurationNanos(SearchPhase.SEARCH);
+        event.tracebackDuration = 
+                statistics.getPhaseDurationNanos(SearchPhase.TRACEBACK);
+        event.commit();
+    }
+    
+    @Name("net.coderodde.missionaries.Search")
+    @Label("Search")
+    @Category("Missionaries")
+    @Description("Statistics of a single state space search.")
+    static final class SearchEvent extends Event {
+        
+        @Label("Algorithm")
+        String algorithm;
+        
+        @Label("Generated Nodes")
+        long generatedNodes;
+        
+        @Label("Expanded Nodes")
+        long expandedNodes;
+        
+        @Label("Rejected Duplicates")
+        long rejectedDuplicates;
+        
+        @Label("Peak Frontier Size")
+        long peakFrontierSize;
+        
+        @Label("Visited Nodes")
+        long visitedNodes;
+        
+        @Label("Search Duration")
+        @Timespan(Timespan.NANOSECONDS)
+        long searchDuration;
+        
+        @Label("Traceback Duration")
+        @Timespan(Timespan.NANOSECONDS)
+        long tracebackDuration;
+    }
+}
@@ -0,0 +1,80 @@
+package net.coderodde.missionaries;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link AStar} against {@link BFS} on the wall time and on the 
+ * number of expanded nodes. As the searches are deterministic, the setup 
+ * runs each of them once per instance, checks that both return paths of the
+ * same length and prints both expanded node counts; the benchmarks then 
+ * measure the time.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AStarBenchmark {
+    
+    @Param({ "3:3:2", 
+             "100:100:10", 
+             "1000:1000:50", 
+             "300:200:20", 
+             "1000:800:40", 
+             "2000:1500:20" })
+    public String instance;
+    
+    private StateNode source;
+    private StateNode target;
+    
+    @Setup
+    public void setUp() {
+        GameParameters gameParameters = BenchmarkInstances.parse(instance);
+        source = StateNode.getSourceState(gameParameters);
+        target = StateNode.getTargetState(gameParameters);
+        
+        SearchStatistics bfsStatistics = new SearchStatistics();
+        SearchStatistics aStarStatistics = new SearchStatistics();
+        int bfsLength = BFS.search(source, target, bfsStatistics).size();
+        int aStarLength = 
+                AStar.search(source, target, aStarStatistics).size();
+        
+        if (bfsLength != aStarLength) {
+            throw new IllegalStateException(
+                    "A* returned a path of " + aStarLength + 
+                    " states, BFS returned " + bfsLength + ".");
+        }
+        
+        System.out.println(
+                String.format("%n%s: length %d, BFS nodes %d, A* nodes %d",
+                              instance,
+                              bfsLength,
+                              bfsStatistics.getNumberOfExpandedNodes(),
+                              aStarStatistics.getNumberOfExpandedNodes()));
+    }
+    
+    @Benchmark
+    public int bfsSearch() {
+        return BFS.search(source, target).size();
+    }
+    
+    @Benchmark
+    public int aStarSearch() {
+        return AStar.search(source, target).size();
+    }
+}
@@ -0,0 +1,29 @@
+package net.coderodde.missionaries;
+
+/**
+ * This class parses the benchmark instance parameters of the form 
+ * {@code "missionaries:cannibals:boatCapacity"}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class BenchmarkInstances {
+    
+    static GameParameters parse(String instance) {
+        String[] fields = instance.split(":");
+        
+        if (fields.length != 3) {
+            throw new IllegalArgumentException(
+                    "Bad benchmark instance \"" + instance + "\". Must be " +
+                    "of the form missionaries:cannibals:boatCapacity.");
+        }
+        
+        return new GameParameters(Integer.parseInt(fields[0]),
+                                  Integer.parseInt(fields[1]),
+                                  Integer.parseInt(fields[2]));
+    }
+    
+    private BenchmarkInstances() {
+        
+    }
+}
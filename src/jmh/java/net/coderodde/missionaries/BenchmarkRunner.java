@@ -0,0 +1,32 @@
+package net.coderodde.missionaries;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler enabled, so that the allocation 
+ * rate per operation is reported along with the time. Accepts the usual JMH 
+ * command line options.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public final class BenchmarkRunner {
+    
+    public static void main(String[] args) 
+            throws CommandLineOptionException, RunnerException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+    
+    private BenchmarkRunner() {
+        
+    }
+}
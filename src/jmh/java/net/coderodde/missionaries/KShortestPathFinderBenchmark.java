@@ -0,0 +1,52 @@
+package net.coderodde.missionaries;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link KShortestPathFinder#search(StateNode, StateNode, int)}. 
+ * The running time of the finder grows with the number of paths rather than
+ * the number of states, so the instances are kept small.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class KShortestPathFinderBenchmark {
+    
+    @Param({ "3:3:2", "4:4:3", "5:5:3", "6:6:4" })
+    public String instance;
+    
+    private StateNode source;
+    private StateNode target;
+    private int optimalPathLength;
+    
+    @Setup
+    public void setUp() {
+        GameParameters gameParameters = BenchmarkInstances.parse(instance);
+        source = StateNode.getSourceState(gameParameters);
+        target = StateNode.getTargetState(gameParameters);
+        optimalPathLength = BFS.search(source, target).size();
+    }
+    
+    @Benchmark
+    public int kShortestPathFinderSearch() {
+        return KShortestPathFinder.search(source, target, optimalPathLength)
+                                  .size();
+    }
+}
@@ -0,0 +1,47 @@
+package net.coderodde.missionaries;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link BFS#search(StateNode, StateNode)}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchBenchmark {
+    
+    @Param({ "3:3:2", "20:20:4", "100:80:8", "300:200:20" })
+    public String instance;
+    
+    private StateNode source;
+    private StateNode target;
+    
+    @Setup
+    public void setUp() {
+        GameParameters gameParameters = BenchmarkInstances.parse(instance);
+        source = StateNode.getSourceState(gameParameters);
+        target = StateNode.getTargetState(gameParameters);
+    }
+    
+    @Benchmark
+    public int bfsSearch() {
+        return BFS.search(source, target).size();
+    }
+}
@@ -0,0 +1,75 @@
+package net.coderodde.missionaries;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the neighbor generation, hashing and equality of 
+ * {@link StateNode}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StateNodeBenchmark {
+    
+    @Param({ "3:3:2", "20:20:4", "200:150:10", "1000:800:40" })
+    public String instance;
+    
+    private GameParameters gameParameters;
+    private StateNode canonicalStateNode;
+    private StateNode equalStateNode;
+    
+    @Setup
+    public void setUp() {
+        gameParameters = BenchmarkInstances.parse(instance);
+        canonicalStateNode = StateNode.getSourceState(gameParameters);
+        canonicalStateNode.getNeighbors();
+        equalStateNode = newSourceStateNode();
+    }
+    
+    /**
+     * Builds the neighbor list of a fresh, non-canonical node.
+     */
+    @Benchmark
+    public int getNeighborsUncached() {
+        return newSourceStateNode().getNeighbors().size();
+    }
+    
+    @Benchmark
+    public int getNeighborsCached() {
+        return canonicalStateNode.getNeighbors().size();
+    }
+    
+    @Benchmark
+    public int hashCodeOfStateNode() {
+        return equalStateNode.hashCode();
+    }
+    
+    @Benchmark
+    public boolean equalsOfStateNodes() {
+        return canonicalStateNode.equals(equalStateNode);
+    }
+    
+    private StateNode newSourceStateNode() {
+        return new StateNode(gameParameters.getTotalNumberOfMissionaries(),
+                             gameParameters.getTotalNumberOfCannibals(),
+                             gameParameters,
+                             BoatLocation.SOURCE_RIVER_BANK);
+    }
+}
@@ -0,0 +1,54 @@
+package net.coderodde.missionaries;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks building a path by repeated 
+ * {@link StateNodePath#append(StateNode)}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StateNodePathBenchmark {
+    
+    @Param({ "10", "100", "1000" })
+    public int pathLength;
+    
+    private StateNode source;
+    private StateNode target;
+    
+    @Setup
+    public void setUp() {
+        GameParameters gameParameters = new GameParameters(3, 3, 2);
+        source = StateNode.getSourceState(gameParameters);
+        target = StateNode.getTargetState(gameParameters);
+    }
+    
+    @Benchmark
+    public int append() {
+        StateNodePath path = new StateNodePath(source);
+        
+        for (int i = 1; i < pathLength; i++) {
+            path = path.append((i & 1) == 0 ? source : target);
+        }
+        
+        return path.getNumberOfNodes();
+    }
+}
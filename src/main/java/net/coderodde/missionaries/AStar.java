@@ -0,0 +1,235 @@
+package net.coderodde.missionaries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * This class implements A* search over packed state codes guided by 
+ * {@link CrossingsHeuristic}. The heuristic is consistent, so each state is 
+ * expanded at most once. Among the open states with equal {@code f}-value, the
+ * deepest one is expanded first, which drives the search towards the target 
+ * along the last {@code f}-layer instead of widening it. An interrupted search
+ * gives up with a {@link CancellationException}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class AStar {
+    
+    /**
+     * Marks the states not yet reached.
+     */
+    private static final int UNVISITED = -1;
+    
+    /**
+     * The search checks for thread interruption once every 
+     * {@code INTERRUPT_CHECK_MASK + 1} expansions.
+     */
+    private static final long INTERRUPT_CHECK_MASK = 0x3FFL;
+    
+    static List<StateNode> search(StateNode source, StateNode target) {
+        return search(source, target, new SearchStatistics());
+    }
+    
+    static List<StateNode> search(StateNode source, 
+                                  StateNode target,
+                                  SearchStatistics statistics) {
+        long startTime = System.nanoTime();
+        GameParameters gameParameters = source.getGameParameters();
+        StateNodeRegistry registry = StateNodeRegistry.get(source);
+        StateCodec codec = registry.getCodec();
+        int sourceCode = codec.encode(source);
+        int targetCode = codec.encode(target);
+        
+        // The heuristic estimates the distance to the canonical target only.
+        CrossingsHeuristic heuristic = 
+                target.equals(StateNode.getTargetState(gameParameters)) ?
+                new CrossingsHeuristic(codec) : 
+                null;
+        
+        int[] distances = new int[codec.getNumberOfStates()];
+        int[] parents = new int[codec.getNumberOfStates()];
+        boolean[] closed = new boolean[codec.getNumberOfStates()];
+        int[] successors = new int[codec.getMaximumNumberOfSuccessors()];
+        OpenHeap open = new OpenHeap();
+        long numberOfGeneratedNodes = 0L;
+        long numberOfExpandedNodes = 0L;
+        long numberOfRejectedDuplicates = 0L;
+        long numberOfVisitedNodes = 1L;
+        int peakFrontierSize = 1;
+        
+        Arrays.fill(distances, UNVISITED);
+        distances[sourceCode] = 0;
+        parents[sourceCode] = PackedBFS.NO_PARENT;
+        open.add(sourceCode, 
+                 heuristic == null ? 0 : heuristic.estimate(sourceCode), 
+                 0);
+        
+        try {
+            while (open.size > 0) {
+                int current = open.remove();
+                
+                if (closed[current]) {
+                    // A stale heap entry.
+                    continue;
+                }
+                
+                if (current == targetCode) {
+                    long tracebackStartTime = System.nanoTime();
+                    List<StateNode> path = 
+                            tracebackPath(targetCode, parents, registry);
+                    statistics.setPhaseDurationNanos(
+                            SearchPhase.SEARCH,
+                            tracebackStartTime - startTime);
+                    statistics.setPhaseDurationNanos(
+                            SearchPhase.TRACEBACK,
+                            System.nanoTime() - tracebackStartTime);
+                    return path;
+                }
+                
+                closed[current] = true;
+                numberOfExpandedNodes++;
+                
+                if ((numberOfExpandedNodes & INTERRUPT_CHECK_MASK) == 0L &&
+                        Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException(
+                            "The search was interrupted.");
+                }
+                
+                int childDistance = distances[current] + 1;
+                int numberOfSuccessors = codec.expand(current, successors);
+                numberOfGeneratedNodes += numberOfSuccessors;
+                
+                for (int i = 0; i < numberOfSuccessors; i++) {
+                    int child = successors[i];
+                    
+                    if (closed[child]) {
+                        numberOfRejectedDuplicates++;
+                        continue;
+                    }
+                    
+                    if (distances[child] == UNVISITED) {
+                        numberOfVisitedNodes++;
+                    } else if (distances[child] <= childDistance) {
+                        numberOfRejectedDuplicates++;
+                        continue;
+                    }
+                    
+                    distances[child] = childDistance;
+                    parents[child] = current;
+                    open.add(child,
+                             childDistance + 
+                                     (heuristic == null ? 
+                                      0 : heuristic.estimate(child)),
+                             childDistance);
+                }
+                
+                peakFrontierSize = Math.max(peakFrontierSize, open.size);
+            }
+            
+            statistics.setPhaseDurationNanos(SearchPhase.SEARCH,
+                                             System.nanoTime() - startTime);
+            throw new IllegalStateException();
+        } finally {
+            statistics.setNumberOfGeneratedNodes(numberOfGeneratedNodes);
+            statistics.setNumberOfExpandedNodes(numberOfExpandedNodes);
+            statistics.setNumberOfRejectedDuplicates(
+                    numberOfRejectedDuplicates);
+            statistics.setPeakFrontierSize(peakFrontierSize);
+            statistics.setNumberOfVisitedNodes(numberOfVisitedNodes);
+            statistics.publish("AStar");
+        }
+    }
+    
+    private static List<StateNode> tracebackPath(int targetCode,
+                                                 int[] parents,
+                                                 StateNodeRegistry registry) {
+        List<StateNode> path = new ArrayList<>();
+        
+        for (int current = targetCode;
+                current != PackedBFS.NO_PARENT;
+                current = parents[current]) {
+            path.add(registry.getStateNode(current));
+        }
+        
+        Collections.<StateNode>reverse(path);
+        return path;
+    }
+    
+    private AStar() {
+        
+    }
+    
+    /**
+     * This class implements a binary minimum heap of state codes. The key of
+     * an entry packs its {@code f}-value into the high half and the complement
+     * of its {@code g}-value into the low half, so that ties on {@code f} are
+     * broken in favor of the deeper state.
+     */
+    private static final class OpenHeap {
+        
+        long[] keys = new long[16];
+        int[] codes = new int[16];
+        int size;
+        
+        void add(int code, int f, int g) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, 2 * size);
+                codes = Arrays.copyOf(codes, 2 * size);
+            }
+            
+            long key = ((long) f << 32) | (Integer.MAX_VALUE - g);
+            int index = size++;
+            
+            while (index > 0) {
+                int parentIndex = (index - 1) >>> 1;
+                
+                if (keys[parentIndex] <= key) {
+                    break;
+                }
+                
+                keys[index] = keys[parentIndex];
+                codes[index] = codes[parentIndex];
+                index = parentIndex;
+            }
+            
+            keys[index] = key;
+            codes[index] = code;
+        }
+        
+        int remove() {
+            int topCode = codes[0];
+            long key = keys[--size];
+            int code = codes[size];
+            int index = 0;
+            
+            while (true) {
+                int childIndex = 2 * index + 1;
+                
+                if (childIndex >= size) {
+                    break;
+                }
+                
+                if (childIndex + 1 < size && 
+                        keys[childIndex + 1] < keys[childIndex]) {
+                    childIndex++;
+                }
+                
+                if (key <= keys[childIndex]) {
+                    break;
+                }
+                
+                keys[index] = keys[childIndex];
+                codes[index] = codes[childIndex];
+                index = childIndex;
+            }
+            
+            keys[index] = key;
+            codes[index] = code;
+            return topCode;
+        }
+    }
+}
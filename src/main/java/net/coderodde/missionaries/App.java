@@ -1,7 +1,13 @@
 package net.coderodde.missionaries;
 
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
+import net.coderodde.missionaries.search.BidirectionalBreadthFirstSearch;
 
 /**
  *
@@ -9,20 +15,59 @@ import java.util.List;
  */
 public class App {
     
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--sweep")) {
+            produceData();
+            return;
+        }
+        
         GameParameters gameParameters = new GameParameters(3, 3, 2);
         StateNode sourceStateNode = StateNode.getSourceState(gameParameters);
         StateNode targetStateNode = StateNode.getTargetState(gameParameters);
         
+        SearchStatistics statistics = new SearchStatistics();
         long startTime = System.currentTimeMillis();
         List<StateNode> solutionPath = BFS.search(sourceStateNode,
-                                                  targetStateNode);
+                                                  targetStateNode,
+                                                  statistics);
         long endTime = System.currentTimeMillis();
         
         System.out.println("BFS in " + (endTime - startTime) + " ms. " +
                            "States: " + solutionPath.size());
         
-        System.out.println("Graph size: " + StateNode.getCounter());
+        System.out.println("BFS statistics: " + statistics);
+        System.out.println("Graph size: " + 
+                           StateNodeRegistry.get(gameParameters).size());
+        
+        startTime = System.currentTimeMillis();
+        List<StateNode> packedSolutionPath = 
+                PackedBFS.search(sourceStateNode, targetStateNode);
+        endTime = System.currentTimeMillis();
+        
+        System.out.println("Packed BFS in " + (endTime - startTime) + " ms. " +
+                           "States: " + packedSolutionPath.size());
+        
+        startTime = System.currentTimeMillis();
+        List<StateNode> bidirectionalSolutionPath = 
+                BidirectionalBFS.search(sourceStateNode, targetStateNode);
+        endTime = System.currentTimeMillis();
+        
+        System.out.println("Bidirectional BFS in " + (endTime - startTime) + 
+                           " ms. States: " + bidirectionalSolutionPath.size());
+        
+        StateSearchGraph searchGraph = new StateSearchGraph(gameParameters);
+        startTime = System.currentTimeMillis();
+        List<StateNode> genericSolutionPath =
+                searchGraph.toStateNodes(
+                        BidirectionalBreadthFirstSearch.search(
+                                searchGraph,
+                                searchGraph.getNode(sourceStateNode),
+                                searchGraph.getNode(targetStateNode)));
+        endTime = System.currentTimeMillis();
+        
+        System.out.println("Generic bidirectional BFS in " +
+                           (endTime - startTime) + " ms. States: " +
+                           genericSolutionPath.size());
         
         int optimalPathLength = solutionPath.size();
         
@@ -40,6 +85,32 @@ public class App {
                         (endTime - startTime) + 
                         " milliseconds.");
         
+        startTime = System.currentTimeMillis();
+        BigInteger numberOfOptimalPaths = 
+                ShortestPathCounter.count(sourceStateNode, targetStateNode);
+        endTime = System.currentTimeMillis();
+        
+        System.out.println(
+                "Counted " + 
+                        numberOfOptimalPaths + 
+                        " shortest paths in " +
+                        (endTime - startTime) + 
+                        " milliseconds.");
+        
+        startTime = System.currentTimeMillis();
+        long numberOfStreamedPaths = 
+                ShortestPathDag.build(sourceStateNode, targetStateNode)
+                               .stream()
+                               .count();
+        endTime = System.currentTimeMillis();
+        
+        System.out.println(
+                "Streamed " + 
+                        numberOfStreamedPaths + 
+                        " shortest paths in " +
+                        (endTime - startTime) + 
+                        " milliseconds.");
+        
 //        for (StateNodePath stateNodePath : optimalPaths) {
 //            System.out.println(stateNodePath);
 //        }
@@ -49,9 +120,13 @@ public class App {
 //        }
     }
     
-    private static void produceData() {
-        for (int m = 1; m <= 10; m++) {
-            
-        }
+    private static void produceData() throws IOException {
+        Writer writer = new OutputStreamWriter(System.out, 
+                                               StandardCharsets.UTF_8);
+        
+        new ParameterSweep(1, 10, 1, 10, 2, 4)
+                .run(writer, 
+                     ParameterSweep.Format.CSV,
+                     Runtime.getRuntime().availableProcessors());
     }
 }
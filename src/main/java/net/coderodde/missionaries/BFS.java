@@ -16,28 +16,64 @@ final class BFS {
     
     static List<StateNode> search(StateNode source,
                                   StateNode target) {
+        return search(source, target, new SearchStatistics());
+    }
+    
+    static List<StateNode> search(StateNode source,
+                                  StateNode target,
+                                  SearchStatistics statistics) {
+        long startTime = System.nanoTime();
         Map<StateNode, StateNode> parentMap = new HashMap<>();
         Deque<StateNode> queue = new ArrayDeque<>();
+        long numberOfGeneratedNodes = 0L;
+        long numberOfExpandedNodes = 0L;
+        long peakFrontierSize = 1L;
         
         parentMap.put(source, null);
         queue.addLast(source);
         
-        while (!queue.isEmpty()) {
-            StateNode current = queue.removeFirst();
-            
-            if (current.equals(target)) {
-                return tracebackPath(target, parentMap);
-            }
-            
-            for (StateNode child : current.getNeighbors()) {
-                if (!parentMap.containsKey(child)) {
-                    parentMap.put(child, current);
-                    queue.addLast(child);
+        try {
+            while (!queue.isEmpty()) {
+                StateNode current = queue.removeFirst();
+                
+                if (current.equals(target)) {
+                    long tracebackStartTime = System.nanoTime();
+                    List<StateNode> path = tracebackPath(target, parentMap);
+                    statistics.setPhaseDurationNanos(
+                            SearchPhase.SEARCH, 
+                            tracebackStartTime - startTime);
+                    statistics.setPhaseDurationNanos(
+                            SearchPhase.TRACEBACK,
+                            System.nanoTime() - tracebackStartTime);
+                    return path;
+                }
+                
+                numberOfExpandedNodes++;
+                
+                for (StateNode child : current.getNeighbors()) {
+                    numberOfGeneratedNodes++;
+                    
+                    if (!parentMap.containsKey(child)) {
+                        parentMap.put(child, current);
+                        queue.addLast(child);
+                    }
                 }
+                
+                peakFrontierSize = Math.max(peakFrontierSize, queue.size());
             }
+            
+            statistics.setPhaseDurationNanos(SearchPhase.SEARCH,
+                                             System.nanoTime() - startTime);
+            throw new IllegalStateException();
+        } finally {
+            statistics.setNumberOfGeneratedNodes(numberOfGeneratedNodes);
+            statistics.setNumberOfExpandedNodes(numberOfExpandedNodes);
+            statistics.setNumberOfRejectedDuplicates(
+                    numberOfGeneratedNodes - parentMap.size() + 1);
+            statistics.setPeakFrontierSize(peakFrontierSize);
+            statistics.setNumberOfVisitedNodes(parentMap.size());
+            statistics.publish("BFS");
         }
-        
-        throw new IllegalStateException();
     }
     
     static List<StateNode> tracebackPath(StateNode targetNode,
@@ -0,0 +1,175 @@
+package net.coderodde.missionaries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class implements a bidirectional breadth-first search over packed state
+ * codes. As every boat trip can be undone, the backward search expands the
+ * same neighbors as the forward one. Each round expands the whole layer of the
+ * smaller frontier, and the search stops after the first layer in which the
+ * two search trees touch; the shortest of the arcs connecting them in that 
+ * layer yields an optimal path.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class BidirectionalBFS {
+    
+    /**
+     * Marks the states not yet reached by a search direction.
+     */
+    private static final int UNVISITED = -1;
+    
+    static List<StateNode> search(StateNode source, StateNode target) {
+        StateNodeRegistry registry = StateNodeRegistry.get(source);
+        StateCodec codec = registry.getCodec();
+        int sourceCode = codec.encode(source);
+        int targetCode = codec.encode(target);
+        
+        if (sourceCode == targetCode) {
+            return Collections.singletonList(
+                    registry.getStateNode(sourceCode));
+        }
+        
+        if (!codec.isSafe(target.getNumberOfMissionariesOnSourceBank(),
+                          target.getNumberOfCannibalsOnSourceBank())) {
+            // No boat trip leads to an unsafe state, yet the backward search
+            // would expand one.
+            throw new IllegalStateException();
+        }
+        
+        int numberOfStates = codec.getNumberOfStates();
+        int[] forwardParents = new int[numberOfStates];
+        int[] backwardParents = new int[numberOfStates];
+        int[] forwardDistances = new int[numberOfStates];
+        int[] backwardDistances = new int[numberOfStates];
+        int[] successors = new int[codec.getMaximumNumberOfSuccessors()];
+        
+        Arrays.fill(forwardDistances, UNVISITED);
+        Arrays.fill(backwardDistances, UNVISITED);
+        forwardParents[sourceCode] = PackedBFS.NO_PARENT;
+        backwardParents[targetCode] = PackedBFS.NO_PARENT;
+        forwardDistances[sourceCode] = 0;
+        backwardDistances[targetCode] = 0;
+        
+        Frontier forwardFrontier = Frontier.of(sourceCode);
+        Frontier backwardFrontier = Frontier.of(targetCode);
+        
+        // The arc (touchFrom, touchTo) connects the forward search tree to 
+        // the backward one.
+        int bestLength = Integer.MAX_VALUE;
+        int touchFrom = UNVISITED;
+        int touchTo = UNVISITED;
+        
+        while (forwardFrontier.size > 0 && backwardFrontier.size > 0) {
+            boolean forward = forwardFrontier.size <= backwardFrontier.size;
+            Frontier frontier = forward ? forwardFrontier : backwardFrontier;
+            int[] parents = forward ? forwardParents : backwardParents;
+            int[] distances = forward ? forwardDistances : backwardDistances;
+            int[] oppositeDistances = 
+                    forward ? backwardDistances : forwardDistances;
+            
+            Frontier nextFrontier = new Frontier(frontier.size);
+            
+            for (int i = 0; i < frontier.size; i++) {
+                int current = frontier.codes[i];
+                int numberOfSuccessors = codec.expand(current, successors);
+                
+                for (int j = 0; j < numberOfSuccessors; j++) {
+                    int child = successors[j];
+                    
+                    if (oppositeDistances[child] != UNVISITED) {
+                        int length = distances[current] + 1 + 
+                                     oppositeDistances[child];
+                        
+                        if (bestLength > length) {
+                            bestLength = length;
+                            touchFrom = forward ? current : child;
+                            touchTo = forward ? child : current;
+                        }
+                    }
+                    
+                    if (distances[child] == UNVISITED) {
+                        distances[child] = distances[current] + 1;
+                        parents[child] = current;
+                        nextFrontier.add(child);
+                    }
+                }
+            }
+            
+            if (bestLength != Integer.MAX_VALUE) {
+                return stitchPath(touchFrom,
+                                  touchTo,
+                                  forwardParents,
+                                  backwardParents,
+                                  registry);
+            }
+            
+            if (forward) {
+                forwardFrontier = nextFrontier;
+            } else {
+                backwardFrontier = nextFrontier;
+            }
+        }
+        
+        throw new IllegalStateException();
+    }
+    
+    private static List<StateNode> stitchPath(int touchFrom,
+                                              int touchTo,
+                                              int[] forwardParents,
+                                              int[] backwardParents,
+                                              StateNodeRegistry registry) {
+        List<StateNode> path = new ArrayList<>();
+        
+        for (int current = touchFrom; 
+                current != PackedBFS.NO_PARENT; 
+                current = forwardParents[current]) {
+            path.add(registry.getStateNode(current));
+        }
+        
+        Collections.<StateNode>reverse(path);
+        
+        for (int current = touchTo; 
+                current != PackedBFS.NO_PARENT;
+                current = backwardParents[current]) {
+            path.add(registry.getStateNode(current));
+        }
+        
+        return path;
+    }
+    
+    private BidirectionalBFS() {
+        
+    }
+    
+    /**
+     * A growable array of state codes making up a search layer.
+     */
+    private static final class Frontier {
+        
+        int[] codes;
+        int size;
+        
+        Frontier(int capacity) {
+            codes = new int[Math.max(capacity, 1)];
+        }
+        
+        static Frontier of(int code) {
+            Frontier frontier = new Frontier(1);
+            frontier.add(code);
+            return frontier;
+        }
+        
+        void add(int code) {
+            if (size == codes.length) {
+                codes = Arrays.copyOf(codes, 2 * size);
+            }
+            
+            codes[size++] = code;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package net.coderodde.missionaries;
+
+/**
+ * This class implements an admissible and consistent lower bound on the number
+ * of boat trips needed to move everybody to the target bank. With {@code P} 
+ * persons on the source bank and boat capacity {@code k >= 2}, the last trip
+ * takes at most {@code k} persons and every earlier round trip moves at most 
+ * {@code k - 1} persons net, so at least 
+ * {@code f = ceil((P - k) / (k - 1)) + 1} forward trips and 
+ * {@code 2f - 1} crossings are needed when the boat is at the source bank. If 
+ * the boat is at the target bank, somebody has to bring it back first.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class CrossingsHeuristic {
+    
+    /**
+     * The codec of the states being estimated.
+     */
+    private final StateCodec codec;
+    
+    CrossingsHeuristic(StateCodec codec) {
+        this.codec = codec;
+    }
+    
+    /**
+     * Estimates the number of boat trips from the given state to the target 
+     * state with everybody on the target bank.
+     * 
+     * @param code the code of the state.
+     * @return a lower bound on the number of boat trips.
+     */
+    int estimate(int code) {
+        int persons = codec.getNumberOfMissionariesOnSourceBank(code) +
+                      codec.getNumberOfCannibalsOnSourceBank(code);
+        
+        if (persons == 0) {
+            return 0;
+        }
+        
+        if (codec.getBoatLocation(code) == BoatLocation.SOURCE_RIVER_BANK) {
+            return estimateFromSourceBank(persons);
+        }
+        
+        // At least one person has to row the boat back.
+        return 1 + estimateFromSourceBank(persons + 1);
+    }
+    
+    private int estimateFromSourceBank(int persons) {
+        int boatCapacity = codec.getGameParameters().getBoatCapacity();
+        
+        if (persons <= boatCapacity) {
+            return 1;
+        }
+        
+        if (boatCapacity < 2) {
+            // No round trip makes progress. Any value is admissible here since
+            // the target is not reachable.
+            return 1;
+        }
+        
+        // ceil((persons - boatCapacity) / (boatCapacity - 1)) + 1
+        int remainder = persons - boatCapacity;
+        int forwardTrips = 
+                (remainder + boatCapacity - 2) / (boatCapacity - 1) + 1;
+        
+        return 2 * forwardTrips - 1;
+    }
+}
@@ -0,0 +1,655 @@
+package net.coderodde.missionaries;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+/**
+ * This class implements a disk-backed breadth-first search over packed state
+ * codes with delayed duplicate detection. Each layer lives in its own file as
+ * a sorted sequence of distinct codes. The next layer is generated by
+ * streaming the current one, collecting the successors in an in-memory buffer
+ * and spilling the buffer as a sorted run whenever it fills up. The runs are
+ * then merged, and every code also present in the current or the previous
+ * layer is dropped on the fly: as every boat trip can be undone, no other
+ * layer may contain a successor. If there are more runs than the buffer
+ * allows streams, they are first merged into fewer, longer runs.
+ * <p>
+ * All the layer files are kept until the search ends, so that an optimal path
+ * can be rebuilt backwards: the predecessor of a state on layer {@code d + 1}
+ * is found by streaming layer {@code d}. The run buffer and all the file
+ * buffers together take at most the configured buffer size of heap, whatever
+ * the size of the state space. For the same reason, the states are expanded
+ * by checking the safety rules directly instead of through a
+ * {@link StateCodec}, and the states of the path are created directly instead
+ * of through the {@link StateNodeRegistry}, both of which keep per-state
+ * tables.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class ExternalBFS {
+
+    /**
+     * The default heap budget in bytes.
+     */
+    static final int DEFAULT_BUFFER_SIZE = 1 << 24;
+    
+    /**
+     * The smallest heap budget in bytes.
+     */
+    static final int MINIMUM_BUFFER_SIZE = 1 << 16;
+    
+    /**
+     * The smallest file buffer in bytes.
+     */
+    private static final int MINIMUM_BLOCK_SIZE = 1 << 12;
+    
+    /**
+     * The parameters of the searched game.
+     */
+    private final GameParameters gameParameters;
+    
+    /**
+     * Equals the total number of cannibals plus one.
+     */
+    private final int cannibalRadix;
+    
+    /**
+     * The directory holding the layer and run files.
+     */
+    private final Path workDirectory;
+    
+    /**
+     * The heap budget in bytes.
+     */
+    private final int bufferSize;
+    
+    /**
+     * The buffer collecting the successors before they are spilled as a run.
+     */
+    private final int[] runBuffer;
+    
+    /**
+     * The buffer for the successors of a single state.
+     */
+    private final int[] successors;
+    
+    /**
+     * The maximum number of runs merged at a time.
+     */
+    private final int maximumMergeWidth;
+    
+    /**
+     * The number of run files created so far.
+     */
+    private int numberOfRuns;
+    
+    /**
+     * Set once the target has been written to a layer file.
+     */
+    private boolean targetFound;
+    
+    private long numberOfGeneratedNodes;
+    private long numberOfExpandedNodes;
+    private long numberOfVisitedNodes;
+    private long peakFrontierSize;
+    
+    private ExternalBFS(GameParameters gameParameters,
+                        Path workDirectory,
+                        int bufferSize) {
+        this.gameParameters = gameParameters;
+        this.cannibalRadix = gameParameters.getTotalNumberOfCannibals() + 1;
+        this.workDirectory = workDirectory;
+        this.bufferSize = bufferSize;
+        // Half of the budget goes to the run buffer, the other half to the
+        // file buffers.
+        this.runBuffer = new int[bufferSize / 8];
+        int boatCapacity = gameParameters.getBoatCapacity();
+        // There are at most (k + 1)(k + 2) / 2 loads (m, c) with m + c <= k.
+        this.successors = new int[(boatCapacity + 1) * (boatCapacity + 2) / 2];
+        // The merged runs share their half with the current layer, the
+        // previous layer and the output.
+        this.maximumMergeWidth =
+                Math.max(bufferSize / 2 / MINIMUM_BLOCK_SIZE - 3, 2);
+    }
+    
+    static List<StateNode> search(StateNode source, StateNode target)
+            throws IOException {
+        return search(source, target, null, DEFAULT_BUFFER_SIZE);
+    }
+    
+    static List<StateNode> search(StateNode source,
+                                  StateNode target,
+                                  Path directory,
+                                  int bufferSize) throws IOException {
+        return search(source,
+                      target,
+                      directory,
+                      bufferSize,
+                      new SearchStatistics());
+    }
+    
+    /**
+     * Searches for a shortest path from {@code source} to {@code target}.
+     *
+     * @param source     the source state.
+     * @param target     the target state.
+     * @param directory  the directory in which to create the temporary files,
+     *                   or {@code null} for the default temporary-file
+     *                   directory.
+     * @param bufferSize the heap budget in bytes.
+     * @param statistics the statistics to fill in.
+     * @return the shortest path.
+     * @throws IOException if a temporary file cannot be written or read.
+     * @throws IllegalStateException if the target is not reachable.
+     */
+    static List<StateNode> search(StateNode source,
+                                  StateNode target,
+                                  Path directory,
+                                  int bufferSize,
+                                  SearchStatistics statistics)
+            throws IOException {
+        if (bufferSize < MINIMUM_BUFFER_SIZE) {
+            throw new IllegalArgumentException(
+                    "The buffer size is too small. Must be at least " +
+                    MINIMUM_BUFFER_SIZE + ".");
+        }
+        
+        long startTime = System.nanoTime();
+        GameParameters gameParameters = source.getGameParameters();
+        Path workDirectory =
+                directory == null ?
+                Files.createTempDirectory("external-bfs-") :
+                Files.createTempDirectory(directory, "external-bfs-");
+        ExternalBFS search =
+                new ExternalBFS(gameParameters, workDirectory, bufferSize);
+        int sourceCode = search.encode(source);
+        int targetCode = search.encode(target);
+        
+        try {
+            int pathLength = search.run(sourceCode, targetCode);
+            long tracebackStartTime = System.nanoTime();
+            int[] path = search.rebuildPath(targetCode, pathLength);
+            List<StateNode> result = new ArrayList<>(path.length);
+            
+            for (int code : path) {
+                result.add(search.decode(code));
+            }
+            
+            statistics.setPhaseDurationNanos(
+                    SearchPhase.SEARCH,
+                    tracebackStartTime - startTime);
+            statistics.setPhaseDurationNanos(
+                    SearchPhase.TRACEBACK,
+                    System.nanoTime() - tracebackStartTime);
+            return result;
+        } finally {
+            statistics.setNumberOfGeneratedNodes(
+                    search.numberOfGeneratedNodes);
+            statistics.setNumberOfExpandedNodes(search.numberOfExpandedNodes);
+            statistics.setNumberOfRejectedDuplicates(
+                    search.numberOfGeneratedNodes -
+                    search.numberOfVisitedNodes + 1L);
+            statistics.setPeakFrontierSize(search.peakFrontierSize);
+            statistics.setNumberOfVisitedNodes(search.numberOfVisitedNodes);
+            statistics.publish("ExternalBFS");
+            search.deleteFiles();
+        }
+    }
+    
+    /**
+     * Generates the layers until the target shows up.
+     *
+     * @return the number of the layer containing the target.
+     */
+    private int run(int sourceCode, int targetCode) throws IOException {
+        try (IntWriter writer = new IntWriter(getLayerFile(0),
+                                              MINIMUM_BLOCK_SIZE)) {
+            writer.write(sourceCode);
+        }
+        
+        numberOfVisitedNodes = 1L;
+        peakFrontierSize = 1;
+        
+        if (sourceCode == targetCode) {
+            return 0;
+        }
+        
+        for (int depth = 0; ; depth++) {
+            List<Path> runs = generateRuns(getLayerFile(depth));
+            
+            while (runs.size() > maximumMergeWidth) {
+                List<Path> mergedRuns = new ArrayList<>();
+                
+                for (int i = 0; i < runs.size(); i += maximumMergeWidth) {
+                    List<Path> group =
+                            runs.subList(i,
+                                         Math.min(i + maximumMergeWidth,
+                                                  runs.size()));
+                    Path mergedRun = getRunFile(numberOfRuns++);
+                    merge(group,
+                          Collections.<Path>emptyList(),
+                          mergedRun,
+                          targetCode);
+                    mergedRuns.add(mergedRun);
+                }
+                
+                delete(runs);
+                runs = mergedRuns;
+            }
+            
+            List<Path> excludedLayers = new ArrayList<>(2);
+            excludedLayers.add(getLayerFile(depth));
+            
+            if (depth > 0) {
+                excludedLayers.add(getLayerFile(depth - 1));
+            }
+            
+            targetFound = false;
+            long layerSize = merge(runs,
+                                   excludedLayers,
+                                   getLayerFile(depth + 1),
+                                   targetCode);
+            delete(runs);
+            numberOfVisitedNodes += layerSize;
+            peakFrontierSize = Math.max(peakFrontierSize, layerSize);
+            
+            if (targetFound) {
+                return depth + 1;
+            }
+            
+            if (layerSize == 0L) {
+                throw new IllegalStateException();
+            }
+        }
+    }
+    
+    /**
+     * Expands a whole layer into sorted runs of distinct successor codes.
+     */
+    private List<Path> generateRuns(Path layerFile) throws IOException {
+        List<Path> runs = new ArrayList<>();
+        int size = 0;
+        
+        try (IntReader reader = new IntReader(layerFile, bufferSize / 4)) {
+            while (reader.advance()) {
+                int numberOfSuccessors =
+                        expand(reader.current);
+                numberOfGeneratedNodes += numberOfSuccessors;
+                numberOfExpandedNodes++;
+                
+                for (int i = 0; i < numberOfSuccessors; i++) {
+                    if (size == runBuffer.length) {
+                        runs.add(spillRun(size));
+                        size = 0;
+                    }
+                    
+                    runBuffer[size++] = successors[i];
+                }
+            }
+        }
+        
+        if (size > 0) {
+            runs.add(spillRun(size));
+        }
+        
+        return runs;
+    }
+    
+    private Path spillRun(int size) throws IOException {
+        Arrays.sort(runBuffer, 0, size);
+        Path run = getRunFile(numberOfRuns++);
+        
+        try (IntWriter writer = new IntWriter(run, bufferSize / 4)) {
+            for (int i = 0; i < size; i++) {
+                if (i == 0 || runBuffer[i] != runBuffer[i - 1]) {
+                    writer.write(runBuffer[i]);
+                }
+            }
+        }
+        
+        return run;
+    }
+    
+    /**
+     * Merges the sorted {@code runs} into {@code output}, dropping the
+     * duplicates and the codes present in any of the sorted
+     * {@code excludedFiles}.
+     *
+     * @return the number of codes written.
+     */
+    private long merge(List<Path> runs,
+                       List<Path> excludedFiles,
+                       Path output,
+                       int targetCode) throws IOException {
+        int blockSize =
+                Math.max(bufferSize / 2 / (runs.size() + 3),
+                         MINIMUM_BLOCK_SIZE);
+        PriorityQueue<IntReader> queue =
+                new PriorityQueue<>(Math.max(runs.size(), 1),
+                                    Comparator.comparingInt(r -> r.current));
+        List<IntReader> excludedReaders = new ArrayList<>(2);
+        
+        try (IntWriter writer = new IntWriter(output, blockSize)) {
+            for (Path run : runs) {
+                IntReader reader = new IntReader(run, blockSize);
+                
+                if (reader.advance()) {
+                    queue.add(reader);
+                } else {
+                    reader.close();
+                }
+            }
+            
+            for (Path excludedFile : excludedFiles) {
+                IntReader reader = new IntReader(excludedFile, blockSize);
+                excludedReaders.add(reader);
+                
+                if (!reader.advance()) {
+                    reader.close();
+                }
+            }
+            
+            boolean hasLastCode = false;
+            int lastCode = 0;
+            
+            while (!queue.isEmpty()) {
+                IntReader reader = queue.poll();
+                int code = reader.current;
+                
+                if (reader.advance()) {
+                    queue.add(reader);
+                } else {
+                    reader.close();
+                }
+                
+                if (hasLastCode && code == lastCode) {
+                    continue;
+                }
+                
+                hasLastCode = true;
+                lastCode = code;
+                
+                if (isExcluded(code, excludedReaders)) {
+                    continue;
+                }
+                
+                writer.write(code);
+                
+                if (code == targetCode) {
+                    targetFound = true;
+                }
+            }
+            
+            return writer.size;
+        } finally {
+            for (IntReader reader : queue) {
+                reader.close();
+            }
+            
+            for (IntReader reader : excludedReaders) {
+                reader.close();
+            }
+        }
+    }
+    
+    private static boolean isExcluded(int code, List<IntReader> readers)
+            throws IOException {
+        boolean excluded = false;
+        
+        for (IntReader reader : readers) {
+            while (!reader.exhausted && reader.current < code) {
+                if (!reader.advance()) {
+                    reader.close();
+                }
+            }
+            
+            if (!reader.exhausted && reader.current == code) {
+                excluded = true;
+            }
+        }
+        
+        return excluded;
+    }
+    
+    /**
+     * Walks the layer files backwards, picking on each layer a state that has
+     * the state picked on the next layer as a successor.
+     */
+    private int[] rebuildPath(int targetCode, int pathLength)
+            throws IOException {
+        int[] path = new int[pathLength + 1];
+        path[pathLength] = targetCode;
+        
+        for (int depth = pathLength - 1; depth >= 0; depth--) {
+            path[depth] = findPredecessor(getLayerFile(depth),
+                                          path[depth + 1]);
+        }
+        
+        return path;
+    }
+    
+    private int findPredecessor(Path layerFile, int code) throws IOException {
+        try (IntReader reader = new IntReader(layerFile, bufferSize / 4)) {
+            while (reader.advance()) {
+                int numberOfSuccessors =
+                        expand(reader.current);
+                
+                for (int i = 0; i < numberOfSuccessors; i++) {
+                    if (successors[i] == code) {
+                        return reader.current;
+                    }
+                }
+            }
+        }
+        
+        throw new IllegalStateException(
+                "No predecessor found in " + layerFile + ".");
+    }
+    
+    private int encode(StateNode stateNode) {
+        int index = stateNode.getNumberOfMissionariesOnSourceBank() *
+                    cannibalRadix +
+                    stateNode.getNumberOfCannibalsOnSourceBank();
+        
+        return (index << 1) |
+               (stateNode.getBoatLocation() ==
+                BoatLocation.SOURCE_RIVER_BANK ? 0 : 1);
+    }
+    
+    private StateNode decode(int code) {
+        return new StateNode((code >>> 1) / cannibalRadix,
+                             (code >>> 1) % cannibalRadix,
+                             gameParameters,
+                             (code & 1) == 0 ?
+                             BoatLocation.SOURCE_RIVER_BANK :
+                             BoatLocation.TARGET_RIVER_BANK);
+    }
+    
+    /**
+     * Writes the codes of all the safe states reachable from {@code code} by a
+     * single boat trip into {@link #successors}, in the layout of
+     * {@link StateCodec}.
+     *
+     * @return the number of successor codes written.
+     */
+    private int expand(int code) {
+        int totalNumberOfMissionaries =
+                gameParameters.getTotalNumberOfMissionaries();
+        int totalNumberOfCannibals = cannibalRadix - 1;
+        int boatCapacity = gameParameters.getBoatCapacity();
+        int missionaries = (code >>> 1) / cannibalRadix;
+        int cannibals = (code >>> 1) % cannibalRadix;
+        boolean fromSourceBank = (code & 1) == 0;
+        int availableMissionaries =
+                fromSourceBank ?
+                missionaries :
+                totalNumberOfMissionaries - missionaries;
+        int availableCannibals =
+                fromSourceBank ? cannibals : totalNumberOfCannibals - cannibals;
+        int sign = fromSourceBank ? -1 : 1;
+        int size = 0;
+        
+        for (int m = 0; m <= Math.min(boatCapacity, availableMissionaries);
+                m++) {
+            for (int c = m == 0 ? 1 : 0;
+                    c <= Math.min(boatCapacity - m, availableCannibals);
+                    c++) {
+                int nextMissionaries = missionaries + sign * m;
+                int nextCannibals = cannibals + sign * c;
+                int missionariesOnTargetBank =
+                        totalNumberOfMissionaries - nextMissionaries;
+                int cannibalsOnTargetBank =
+                        totalNumberOfCannibals - nextCannibals;
+                
+                if ((nextMissionaries == 0 ||
+                        nextMissionaries >= nextCannibals) &&
+                        (missionariesOnTargetBank == 0 ||
+                         missionariesOnTargetBank >= cannibalsOnTargetBank)) {
+                    successors[size++] =
+                            ((nextMissionaries * cannibalRadix +
+                              nextCannibals) << 1) |
+                            (fromSourceBank ? 1 : 0);
+                }
+            }
+        }
+        
+        return size;
+    }
+    
+    private Path getLayerFile(int depth) {
+        return workDirectory.resolve("layer-" + depth + ".bin");
+    }
+    
+    private Path getRunFile(int index) {
+        return workDirectory.resolve("run-" + index + ".bin");
+    }
+    
+    private static void delete(List<Path> files) throws IOException {
+        for (Path file : files) {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    private void deleteFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        
+        try (Stream<Path> stream = Files.list(workDirectory)) {
+            stream.forEach(files::add);
+        }
+        
+        delete(files);
+        Files.deleteIfExists(workDirectory);
+    }
+    
+    /**
+     * This class implements a buffered reader of {@code int} codes stored in
+     * big-endian order.
+     */
+    private static final class IntReader implements Closeable {
+    
+        final FileChannel channel;
+        final ByteBuffer buffer;
+        int current;
+        boolean exhausted;
+        
+        IntReader(Path file, int blockSize) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.buffer = ByteBuffer.allocate(blockSize & ~3);
+            this.buffer.flip();
+        }
+        
+        /**
+         * Moves to the next code.
+         *
+         * @return {@code false} if the file is exhausted.
+         */
+        boolean advance() throws IOException {
+            if (buffer.remaining() < Integer.BYTES) {
+                buffer.compact();
+                
+                while (buffer.position() < Integer.BYTES) {
+                    if (channel.read(buffer) < 0) {
+                        break;
+                    }
+                }
+                
+                buffer.flip();
+                
+                if (buffer.remaining() < Integer.BYTES) {
+                    exhausted = true;
+                    return false;
+                }
+            }
+            
+            current = buffer.getInt();
+            return true;
+        }
+        
+        @Override
+        public void close() throws IOException {
+            exhausted = true;
+            channel.close();
+        }
+    }
+    
+    /**
+     * This class implements a buffered writer of {@code int} codes in
+     * big-endian order.
+     */
+    private static final class IntWriter implements Closeable {
+    
+        final FileChannel channel;
+        final ByteBuffer buffer;
+        long size;
+        
+        IntWriter(Path file, int blockSize) throws IOException {
+            this.channel =
+                    FileChannel.open(file,
+                                     StandardOpenOption.CREATE,
+                                     StandardOpenOption.WRITE,
+                                     StandardOpenOption.TRUNCATE_EXISTING);
+            this.buffer = ByteBuffer.allocate(blockSize & ~3);
+        }
+        
+        void write(int code) throws IOException {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            
+            buffer.putInt(code);
+            size++;
+        }
+        
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+        
+        private void flush() throws IOException {
+            buffer.flip();
+            
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            
+            buffer.clear();
+        }
+    }
+}
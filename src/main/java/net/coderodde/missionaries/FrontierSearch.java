@@ -0,0 +1,279 @@
+package net.coderodde.missionaries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class implements a breadth-first frontier search over packed state
+ * codes. As every boat trip can be undone, all the neighbors of a state at
+ * depth {@code d} lie at depth {@code d - 1} or {@code d + 1}, so keeping the
+ * previous and the current layer suffices for duplicate detection, and no
+ * parent links are stored at all. The layers are kept as sorted code arrays.
+ * <p>
+ * The first pass only finds the length {@code D} of an optimal path. The path
+ * is then reconstructed by divide and conquer: a state at distance
+ * {@code D / 2} from the source and {@code D - D / 2} from the target is found
+ * by intersecting the corresponding layers of two more frontier searches, and
+ * both halves are solved recursively. This takes {@code O(log D)} passes over
+ * the graph, while the memory stays proportional to the widest layer.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class FrontierSearch {
+
+    /**
+     * The codec of the searched game.
+     */
+    private final StateCodec codec;
+    
+    /**
+     * The buffer for the successors of a single state.
+     */
+    private final int[] successors;
+    
+    private long numberOfGeneratedNodes;
+    private long numberOfExpandedNodes;
+    private long numberOfRejectedDuplicates;
+    private long numberOfVisitedNodes;
+    private int peakFrontierSize;
+    
+    private FrontierSearch(StateCodec codec) {
+        this.codec = codec;
+        this.successors = new int[codec.getMaximumNumberOfSuccessors()];
+    }
+    
+    static List<StateNode> search(StateNode source, StateNode target) {
+        return search(source, target, new SearchStatistics());
+    }
+    
+    static List<StateNode> search(StateNode source,
+                                  StateNode target,
+                                  SearchStatistics statistics) {
+        long startTime = System.nanoTime();
+        // A private codec, as the shared registry keeps a slot per state.
+        StateCodec codec = new StateCodec(source.getGameParameters());
+        int sourceCode = codec.encode(source);
+        int targetCode = codec.encode(target);
+        FrontierSearch search = new FrontierSearch(codec);
+        
+        try {
+            if (sourceCode == targetCode) {
+                statistics.setPhaseDurationNanos(
+                        SearchPhase.SEARCH,
+                        System.nanoTime() - startTime);
+                return Collections.singletonList(
+                        codec.decode(sourceCode));
+            }
+            
+            if (!codec.isSafe(target.getNumberOfMissionariesOnSourceBank(),
+                              target.getNumberOfCannibalsOnSourceBank())) {
+                // No boat trip leads to an unsafe state, yet the backward
+                // searches would expand one.
+                throw new IllegalStateException();
+            }
+            
+            int pathLength = search.findPathLength(sourceCode, targetCode);
+            long reconstructionStartTime = System.nanoTime();
+            int[] path = new int[pathLength + 1];
+            path[0] = sourceCode;
+            path[pathLength] = targetCode;
+            search.reconstruct(path, 0, pathLength);
+            
+            List<StateNode> result = new ArrayList<>(path.length);
+            
+            for (int code : path) {
+                result.add(codec.decode(code));
+            }
+            
+            statistics.setPhaseDurationNanos(
+                    SearchPhase.SEARCH,
+                    reconstructionStartTime - startTime);
+            statistics.setPhaseDurationNanos(
+                    SearchPhase.TRACEBACK,
+                    System.nanoTime() - reconstructionStartTime);
+            return result;
+        } finally {
+            statistics.setNumberOfGeneratedNodes(
+                    search.numberOfGeneratedNodes);
+            statistics.setNumberOfExpandedNodes(
+                    search.numberOfExpandedNodes);
+            statistics.setNumberOfRejectedDuplicates(
+                    search.numberOfRejectedDuplicates);
+            statistics.setPeakFrontierSize(search.peakFrontierSize);
+            statistics.setNumberOfVisitedNodes(search.numberOfVisitedNodes);
+            statistics.publish("FrontierSearch");
+        }
+    }
+    
+    /**
+     * Runs a frontier search from the source until the target shows up.
+     *
+     * @param sourceCode the source state code.
+     * @param targetCode the target state code.
+     * @return the number of crossings on a shortest path.
+     * @throws IllegalStateException if the target is not reachable.
+     */
+    private int findPathLength(int sourceCode, int targetCode) {
+        Layer previousLayer = new Layer(0);
+        Layer currentLayer = Layer.of(sourceCode);
+        numberOfVisitedNodes = 1L;
+        
+        for (int depth = 0; ; depth++) {
+            if (currentLayer.contains(targetCode)) {
+                return depth;
+            }
+            
+            if (currentLayer.size == 0) {
+                throw new IllegalStateException();
+            }
+            
+            Layer nextLayer = expand(previousLayer, currentLayer);
+            numberOfVisitedNodes += nextLayer.size;
+            previousLayer = currentLayer;
+            currentLayer = nextLayer;
+        }
+    }
+    
+    /**
+     * Fills in {@code path[low + 1], ..., path[high - 1]}, given that the
+     * shortest path from {@code path[low]} to {@code path[high]} has
+     * {@code high - low} crossings.
+     */
+    private void reconstruct(int[] path, int low, int high) {
+        if (high - low < 2) {
+            return;
+        }
+        
+        int middle = (low + high) >>> 1;
+        path[middle] = findRelay(path[low], middle - low,
+                                 path[high], high - middle);
+        reconstruct(path, low, middle);
+        reconstruct(path, middle, high);
+    }
+    
+    /**
+     * Finds a state at distance {@code distance1} from {@code code1} and at
+     * distance {@code distance2} from {@code code2}.
+     */
+    private int findRelay(int code1, int distance1, int code2, int distance2) {
+        Layer layer1 = getLayer(code1, distance1);
+        Layer layer2 = getLayer(code2, distance2);
+        int i = 0;
+        int j = 0;
+        
+        while (i < layer1.size && j < layer2.size) {
+            int layerCode1 = layer1.codes[i];
+            int layerCode2 = layer2.codes[j];
+            
+            if (layerCode1 == layerCode2) {
+                return layerCode1;
+            }
+            
+            if (layerCode1 < layerCode2) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        
+        throw new IllegalStateException("The search layers do not meet.");
+    }
+    
+    /**
+     * Computes the states at exactly the given distance from a state.
+     */
+    private Layer getLayer(int code, int distance) {
+        Layer previousLayer = new Layer(0);
+        Layer currentLayer = Layer.of(code);
+        
+        for (int depth = 0; depth < distance; depth++) {
+            Layer nextLayer = expand(previousLayer, currentLayer);
+            previousLayer = currentLayer;
+            currentLayer = nextLayer;
+        }
+        
+        return currentLayer;
+    }
+    
+    /**
+     * Generates the layer following {@code currentLayer}.
+     */
+    private Layer expand(Layer previousLayer, Layer currentLayer) {
+        Layer nextLayer = new Layer(currentLayer.size);
+        
+        for (int i = 0; i < currentLayer.size; i++) {
+            int numberOfSuccessors =
+                    codec.expand(currentLayer.codes[i], successors);
+            numberOfGeneratedNodes += numberOfSuccessors;
+            numberOfExpandedNodes++;
+            
+            for (int j = 0; j < numberOfSuccessors; j++) {
+                int successor = successors[j];
+                
+                if (previousLayer.contains(successor)) {
+                    numberOfRejectedDuplicates++;
+                } else {
+                    nextLayer.add(successor);
+                }
+            }
+        }
+        
+        int sizeBeforeDeduplication = nextLayer.size;
+        nextLayer.sortAndDeduplicate();
+        numberOfRejectedDuplicates += sizeBeforeDeduplication - nextLayer.size;
+        peakFrontierSize =
+                Math.max(peakFrontierSize,
+                         previousLayer.size +
+                         currentLayer.size +
+                         nextLayer.size);
+        return nextLayer;
+    }
+    
+    /**
+     * This class implements a search layer as an array of state codes, which
+     * is sorted and free of duplicates once complete.
+     */
+    private static final class Layer {
+    
+        int[] codes;
+        int size;
+        
+        Layer(int capacity) {
+            this.codes = new int[Math.max(capacity, 4)];
+        }
+        
+        static Layer of(int code) {
+            Layer layer = new Layer(1);
+            layer.add(code);
+            return layer;
+        }
+        
+        void add(int code) {
+            if (size == codes.length) {
+                codes = Arrays.copyOf(codes, 2 * size);
+            }
+            
+            codes[size++] = code;
+        }
+        
+        boolean contains(int code) {
+            return Arrays.binarySearch(codes, 0, size, code) >= 0;
+        }
+        
+        void sortAndDeduplicate() {
+            Arrays.sort(codes, 0, size);
+            int newSize = 0;
+            
+            for (int i = 0; i < size; i++) {
+                if (newSize == 0 || codes[newSize - 1] != codes[i]) {
+                    codes[newSize++] = codes[i];
+                }
+            }
+            
+            size = newSize;
+        }
+    }
+}
@@ -32,8 +32,11 @@ final class GameParameters {
     
     @Override
     public int hashCode() {
-        return (totalNumberOfMissionaries ^ totalNumberOfCannibals) 
-                                          ^ boatCapacity;
+        int hash = 7;
+        hash = 89 * hash + totalNumberOfMissionaries;
+        hash = 89 * hash + totalNumberOfCannibals;
+        hash = 89 * hash + boatCapacity;
+        return hash;
     }
 
     @Override
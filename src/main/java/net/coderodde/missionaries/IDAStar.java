@@ -0,0 +1,310 @@
+package net.coderodde.missionaries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * This class implements iterative deepening A* over packed state codes guided
+ * by {@link CrossingsHeuristic}. Each iteration is a depth-first search that
+ * prunes the states whose {@code f}-value exceeds the current threshold; the
+ * next threshold is the smallest {@code f}-value pruned. The depth-first
+ * search runs on an explicit stack, so the memory is proportional to the
+ * depth of the search times the number of boat loads.
+ * <p>
+ * A fixed-size transposition table remembers, for some of the states expanded
+ * in the current iteration, the smallest depth at which they were reached. A
+ * state reached again at no smaller depth is not expanded again. The table is
+ * direct-mapped: a colliding state simply replaces the previous entry, so the
+ * table size bounds the memory, not the correctness.
+ * <p>
+ * The search keeps no per-state tables besides the one-bit-per-configuration
+ * safety bitmap of its private {@link StateCodec}; in particular, it does not
+ * use the {@link StateNodeRegistry}.
+ * <p>
+ * An unsafe target is rejected at once. Otherwise, as every boat trip can be
+ * undone, an iteration never runs out of states to prune, and the only cap on
+ * the thresholds is the number of states, which bounds the length of any
+ * shortest path. Unsolvable inputs are therefore not supported: the search
+ * does give up with an {@link IllegalStateException} eventually, but only
+ * after exponentially many iterations. Run {@link SolvabilityClassifier}
+ * first when the game may be unsolvable. An interrupted search gives up with
+ * a {@link CancellationException}.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class IDAStar {
+
+    /**
+     * The default number of transposition table entries.
+     */
+    static final int DEFAULT_TRANSPOSITION_TABLE_SIZE = 1 << 16;
+    
+    /**
+     * The search checks for thread interruption once every
+     * {@code INTERRUPT_CHECK_MASK + 1} expansions.
+     */
+    private static final long INTERRUPT_CHECK_MASK = 0x3FFL;
+    
+    static List<StateNode> search(StateNode source, StateNode target) {
+        return search(source, target, DEFAULT_TRANSPOSITION_TABLE_SIZE);
+    }
+    
+    static List<StateNode> search(StateNode source,
+                                  StateNode target,
+                                  int transpositionTableSize) {
+        return search(source,
+                      target,
+                      transpositionTableSize,
+                      new SearchStatistics());
+    }
+    
+    /**
+     * Searches for a shortest path from {@code source} to {@code target}.
+     *
+     * @param source                 the source state.
+     * @param target                 the target state.
+     * @param transpositionTableSize the number of transposition table entries,
+     *                               rounded up to a power of two. Zero
+     *                               disables the table.
+     * @param statistics             the statistics to fill in.
+     * @return the shortest path.
+     * @throws IllegalStateException if the target is not reachable.
+     */
+    static List<StateNode> search(StateNode source,
+                                  StateNode target,
+                                  int transpositionTableSize,
+                                  SearchStatistics statistics) {
+        if (transpositionTableSize < 0) {
+            throw new IllegalArgumentException(
+                    "The transposition table size is too small. Must be at " +
+                    "least 0.");
+        }
+        
+        if (transpositionTableSize > 1 << 30) {
+            throw new IllegalArgumentException(
+                    "The transposition table size is too large. Must be at " +
+                    "most " + (1 << 30) + ".");
+        }
+        
+        long startTime = System.nanoTime();
+        GameParameters gameParameters = source.getGameParameters();
+        StateCodec codec = new StateCodec(gameParameters);
+        int sourceCode = codec.encode(source);
+        int targetCode = codec.encode(target);
+        
+        boolean canonicalTarget =
+                target.getNumberOfMissionariesOnSourceBank() == 0 &&
+                target.getNumberOfCannibalsOnSourceBank() == 0 &&
+                target.getBoatLocation() == BoatLocation.TARGET_RIVER_BANK;
+        
+        // The heuristic estimates the distance to the canonical target only.
+        CrossingsHeuristic heuristic =
+                canonicalTarget ? new CrossingsHeuristic(codec) : null;
+        
+        TranspositionTable transpositionTable =
+                transpositionTableSize == 0 ?
+                null :
+                new TranspositionTable(transpositionTableSize);
+        
+        int loads = codec.getMaximumNumberOfSuccessors();
+        // path[d] is the state at depth d on the current branch, and its
+        // successors are successors[d * loads], ...,
+        // successors[d * loads + successorCounts[d] - 1].
+        int[] path = new int[16];
+        int[] successors = new int[16 * loads];
+        int[] successorCounts = new int[16];
+        int[] successorCursors = new int[16];
+        int[] buffer = new int[loads];
+        long numberOfGeneratedNodes = 0L;
+        long numberOfExpandedNodes = 0L;
+        long numberOfRejectedDuplicates = 0L;
+        int peakFrontierSize = 1;
+        int threshold = heuristic == null ? 0 : heuristic.estimate(sourceCode);
+        
+        try {
+            if (sourceCode == targetCode) {
+                statistics.setPhaseDurationNanos(
+                        SearchPhase.SEARCH,
+                        System.nanoTime() - startTime);
+                return Collections.singletonList(
+                        codec.decode(sourceCode));
+            }
+            
+            if (!codec.isSafe(target.getNumberOfMissionariesOnSourceBank(),
+                              target.getNumberOfCannibalsOnSourceBank())) {
+                // No boat trip leads to an unsafe state.
+                statistics.setPhaseDurationNanos(
+                        SearchPhase.SEARCH,
+                        System.nanoTime() - startTime);
+                throw new IllegalStateException();
+            }
+            
+            // The search graph has cycles, so the iterations would never run
+            // out of states to prune on an unsolvable game.
+            int maximumThreshold = codec.getNumberOfStates();
+            
+            for (int iteration = 1; 
+                    threshold <= maximumThreshold; 
+                    iteration++) {
+                int nextThreshold = Integer.MAX_VALUE;
+                int depth = 0;
+                path[0] = sourceCode;
+                successorCounts[0] = codec.expand(sourceCode, successors);
+                successorCursors[0] = 0;
+                numberOfGeneratedNodes += successorCounts[0];
+                numberOfExpandedNodes++;
+                
+                while (depth >= 0) {
+                    if (successorCursors[depth] == successorCounts[depth]) {
+                        depth--;
+                        continue;
+                    }
+                    
+                    int child = successors[depth * loads +
+                                           successorCursors[depth]++];
+                    int childDepth = depth + 1;
+                    
+                    if (depth > 0 && child == path[depth - 1]) {
+                        // Undoes the last boat trip.
+                        numberOfRejectedDuplicates++;
+                        continue;
+                    }
+                    
+                    int f = childDepth +
+                            (heuristic == null ? 0 : heuristic.estimate(child));
+                    
+                    if (f > threshold) {
+                        nextThreshold = Math.min(nextThreshold, f);
+                        continue;
+                    }
+                    
+                    if (child == targetCode) {
+                        long tracebackStartTime = System.nanoTime();
+                        List<StateNode> result = new ArrayList<>(depth + 2);
+                        
+                        for (int i = 0; i <= depth; i++) {
+                            result.add(codec.decode(path[i]));
+                        }
+                        
+                        result.add(codec.decode(targetCode));
+                        statistics.setPhaseDurationNanos(
+                                SearchPhase.SEARCH,
+                                tracebackStartTime - startTime);
+                        statistics.setPhaseDurationNanos(
+                                SearchPhase.TRACEBACK,
+                                System.nanoTime() - tracebackStartTime);
+                        return result;
+                    }
+                    
+                    if (transpositionTable != null &&
+                            !transpositionTable.offer(child,
+                                                      childDepth,
+                                                      iteration)) {
+                        numberOfRejectedDuplicates++;
+                        continue;
+                    }
+                    
+                    if (childDepth == path.length) {
+                        int capacity = 2 * path.length;
+                        path = Arrays.copyOf(path, capacity);
+                        successors = Arrays.copyOf(successors,
+                                                   capacity * loads);
+                        successorCounts = Arrays.copyOf(successorCounts,
+                                                        capacity);
+                        successorCursors = Arrays.copyOf(successorCursors,
+                                                         capacity);
+                    }
+                    
+                    depth = childDepth;
+                    path[depth] = child;
+                    successorCursors[depth] = 0;
+                    successorCounts[depth] = codec.expand(child, buffer);
+                    System.arraycopy(buffer,
+                                     0,
+                                     successors,
+                                     depth * loads,
+                                     successorCounts[depth]);
+                    numberOfGeneratedNodes += successorCounts[depth];
+                    numberOfExpandedNodes++;
+                    peakFrontierSize = Math.max(peakFrontierSize, depth + 1);
+                    
+                    if ((numberOfExpandedNodes & INTERRUPT_CHECK_MASK) == 0L
+                            && Thread.currentThread().isInterrupted()) {
+                        throw new CancellationException(
+                                "The search was interrupted.");
+                    }
+                }
+                
+                threshold = nextThreshold;
+            }
+            
+            statistics.setPhaseDurationNanos(SearchPhase.SEARCH,
+                                             System.nanoTime() - startTime);
+            throw new IllegalStateException();
+        } finally {
+            statistics.setNumberOfGeneratedNodes(numberOfGeneratedNodes);
+            statistics.setNumberOfExpandedNodes(numberOfExpandedNodes);
+            statistics.setNumberOfRejectedDuplicates(
+                    numberOfRejectedDuplicates);
+            statistics.setPeakFrontierSize(peakFrontierSize);
+            statistics.setNumberOfVisitedNodes(numberOfExpandedNodes);
+            statistics.publish("IDAStar");
+        }
+    }
+    
+    private IDAStar() {
+    
+    }
+    
+    /**
+     * This class implements a direct-mapped table from state codes to the
+     * smallest depth at which they were expanded during an iteration.
+     */
+    private static final class TranspositionTable {
+    
+        final int[] codes;
+        final int[] depths;
+        final int[] iterations;
+        final int mask;
+        
+        TranspositionTable(int size) {
+            int capacity = Integer.highestOneBit(size);
+            
+            if (capacity < size) {
+                capacity <<= 1;
+            }
+            
+            this.codes = new int[capacity];
+            this.depths = new int[capacity];
+            this.iterations = new int[capacity];
+            this.mask = capacity - 1;
+        }
+        
+        /**
+         * Records that {@code code} is about to be expanded at
+         * {@code depth}.
+         *
+         * @return {@code false} if the state was already expanded at no
+         *         greater depth during the same iteration.
+         */
+        boolean offer(int code, int depth, int iteration) {
+            int index = ((code ^ (code >>> 16)) * 0x9E3779B9) & mask;
+            
+            if (iterations[index] == iteration && codes[index] == code) {
+                if (depths[index] <= depth) {
+                    return false;
+                }
+            } else {
+                codes[index] = code;
+                iterations[index] = iteration;
+            }
+            
+            depths[index] = depth;
+            return true;
+        }
+    }
+}
@@ -17,30 +17,65 @@ public final class KShortestPathFinder {
     public static List<StateNodePath> search(StateNode sourceStateNode,
                                              StateNode targetStateNode,
                                              int requestedPathLength) {
+        return search(sourceStateNode, 
+                      targetStateNode, 
+                      requestedPathLength,
+                      new SearchStatistics());
+    }
+    
+    /**
+     * Same as {@link #search(StateNode, StateNode, int)}, but also records the
+     * search statistics. This search keeps no visited set, so it reports no 
+     * visited nodes and no rejected duplicates.
+     */
+    static List<StateNodePath> search(StateNode sourceStateNode,
+                                      StateNode targetStateNode,
+                                      int requestedPathLength,
+                                      SearchStatistics statistics) {
+        long startTime = System.nanoTime();
         List<StateNodePath> paths = new ArrayList<>();
         Map<StateNode, Integer> countMap = new HashMap<>();
         Queue<StateNodePath> pathHeap = new PriorityQueue<>();
         pathHeap.add(new StateNodePath(sourceStateNode));
+        long numberOfGeneratedNodes = 0L;
+        long numberOfExpandedNodes = 0L;
+        int peakFrontierSize = 1;
         
-        while (!pathHeap.isEmpty()) {
-            StateNodePath currentPath = pathHeap.remove();
-            StateNode endNode = currentPath.getEndPoint();
-            
-            if (currentPath.getNumberOfNodes() > requestedPathLength) {
-                return paths;
+        try {
+            while (!pathHeap.isEmpty()) {
+                StateNodePath currentPath = pathHeap.remove();
+                StateNode endNode = currentPath.getEndPoint();
+                
+                if (currentPath.getNumberOfNodes() > requestedPathLength) {
+                    return paths;
+                }
+                
+                if (endNode.equals(targetStateNode)) {
+                    paths.add(currentPath);
+                }
+                
+                numberOfExpandedNodes++;
+                
+                for (StateNode child : endNode.getNeighbors()) {
+                    StateNodePath path = currentPath.append(child);
+                    pathHeap.add(path);
+                    numberOfGeneratedNodes++;
+                }
+                
+                peakFrontierSize = Math.max(peakFrontierSize, 
+                                            pathHeap.size());
             }
             
-            if (endNode.equals(targetStateNode)) {
-                paths.add(currentPath);
-            }
-            
-            for (StateNode child : endNode.getNeighbors()) {
-                StateNodePath path = currentPath.append(child);
-                pathHeap.add(path);
-            }
+            throw new IllegalStateException();
+        } finally {
+            // The paths are built as the search goes, there is no traceback.
+            statistics.setPhaseDurationNanos(SearchPhase.SEARCH,
+                                             System.nanoTime() - startTime);
+            statistics.setNumberOfGeneratedNodes(numberOfGeneratedNodes);
+            statistics.setNumberOfExpandedNodes(numberOfExpandedNodes);
+            statistics.setPeakFrontierSize(peakFrontierSize);
+            statistics.publish("KShortestPathFinder");
         }
-        
-        throw new IllegalStateException();
     }
     
     private KShortestPathFinder() {
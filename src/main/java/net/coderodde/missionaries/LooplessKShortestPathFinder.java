@@ -0,0 +1,271 @@
+package net.coderodde.missionaries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * This class implements Yen's algorithm for finding the {@code k} shortest 
+ * loopless paths between two states, including the paths longer than the 
+ * optimal ones. Each accepted path is deviated from at each of its nodes 
+ * once, so no node serves as a deviation (spur) node more than {@code k} 
+ * times, and at most {@code k} accepted paths plus their deviations are kept
+ * in memory. The deviation searches are breadth-first searches over packed 
+ * state codes that reuse their arrays via generation stamps.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public final class LooplessKShortestPathFinder {
+    
+    /**
+     * Returns up to {@code k} shortest loopless paths from 
+     * {@code sourceStateNode} to {@code targetStateNode}, shortest first. The
+     * order of paths of equal length is deterministic, but unspecified: ties 
+     * among the candidates are broken by state codes, yet a candidate may be 
+     * discovered only after an equally long path has been accepted.
+     * 
+     * @param sourceStateNode the source state.
+     * @param targetStateNode the target state.
+     * @param k               the maximum number of paths to return.
+     * @return the list of paths. Shorter than {@code k} if there are fewer 
+     *         loopless paths.
+     */
+    public static List<StateNodePath> search(StateNode sourceStateNode,
+                                             StateNode targetStateNode,
+                                             int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException(
+                    "Requested number of paths (" + k + 
+                    ") is too small. Must be at least 1.");
+        }
+        
+        StateNodeRegistry registry = StateNodeRegistry.get(sourceStateNode);
+        SpurSearch spurSearch = new SpurSearch(registry.getCodec());
+        int sourceCode = registry.getCodec().encode(sourceStateNode);
+        int targetCode = registry.getCodec().encode(targetStateNode);
+        
+        List<int[]> acceptedPaths = new ArrayList<>(k);
+        Queue<int[]> candidates = 
+                new PriorityQueue<>(LooplessKShortestPathFinder::compare);
+        Set<PathKey> seenPaths = new HashSet<>();
+        
+        int[] shortestPath = 
+                spurSearch.search(new int[]{ sourceCode }, targetCode, 
+                                  acceptedPaths);
+        
+        if (shortestPath != null) {
+            candidates.add(shortestPath);
+            seenPaths.add(new PathKey(shortestPath));
+        }
+        
+        while (acceptedPaths.size() < k && !candidates.isEmpty()) {
+            int[] path = candidates.remove();
+            acceptedPaths.add(path);
+            
+            if (acceptedPaths.size() == k) {
+                break;
+            }
+            
+            for (int spurIndex = 0; spurIndex < path.length - 1; spurIndex++) {
+                int[] rootPath = Arrays.copyOf(path, spurIndex + 1);
+                int[] candidate = 
+                        spurSearch.search(rootPath, targetCode, acceptedPaths);
+                
+                if (candidate != null && 
+                        seenPaths.add(new PathKey(candidate))) {
+                    candidates.add(candidate);
+                }
+            }
+        }
+        
+        List<StateNodePath> paths = new ArrayList<>(acceptedPaths.size());
+        
+        for (int[] codes : acceptedPaths) {
+            StateNodePath stateNodePath = 
+                    new StateNodePath(registry.getStateNode(codes[0]));
+            
+            for (int i = 1; i < codes.length; i++) {
+                stateNodePath = 
+                        stateNodePath.append(registry.getStateNode(codes[i]));
+            }
+            
+            paths.add(stateNodePath);
+        }
+        
+        return paths;
+    }
+    
+    private static int compare(int[] path1, int[] path2) {
+        if (path1.length != path2.length) {
+            return Integer.compare(path1.length, path2.length);
+        }
+        
+        for (int i = 0; i < path1.length; i++) {
+            if (path1[i] != path2[i]) {
+                return Integer.compare(path1[i], path2[i]);
+            }
+        }
+        
+        return 0;
+    }
+    
+    private LooplessKShortestPathFinder() {
+        
+    }
+    
+    /**
+     * This class finds the shortest path extending a root path to the target
+     * without revisiting the root path and without taking, from the last root
+     * node, the arc taken by any accepted path sharing the same root.
+     */
+    private static final class SpurSearch {
+        
+        private final StateCodec codec;
+        private final int[] parents;
+        private final int[] visitStamps;
+        private final int[] blockStamps;
+        private final int[] forbiddenStamps;
+        private final int[] queue;
+        private final int[] successors;
+        private int stamp;
+        
+        SpurSearch(StateCodec codec) {
+            this.codec = codec;
+            this.parents = new int[codec.getNumberOfStates()];
+            this.visitStamps = new int[codec.getNumberOfStates()];
+            this.blockStamps = new int[codec.getNumberOfStates()];
+            this.forbiddenStamps = new int[codec.getNumberOfStates()];
+            this.queue = new int[codec.getNumberOfStates()];
+            this.successors = new int[codec.getMaximumNumberOfSuccessors()];
+        }
+        
+        /**
+         * Returns the root path extended by a shortest spur path, or 
+         * {@code null} if there is no admissible spur path.
+         */
+        int[] search(int[] rootPath, int targetCode, List<int[]> acceptedPaths) {
+            stamp++;
+            int spurIndex = rootPath.length - 1;
+            int spurCode = rootPath[spurIndex];
+            
+            for (int i = 0; i < spurIndex; i++) {
+                blockStamps[rootPath[i]] = stamp;
+            }
+            
+            // Forbid the arcs leaving the spur node along the accepted paths
+            // with the same root. The nodes they lead to stay reachable via
+            // other routes.
+            for (int[] path : acceptedPaths) {
+                if (path.length > spurIndex + 1 && startsWith(path, rootPath)) {
+                    forbiddenStamps[path[spurIndex + 1]] = stamp;
+                }
+            }
+            
+            int head = 0;
+            int tail = 0;
+            visitStamps[spurCode] = stamp;
+            parents[spurCode] = PackedBFS.NO_PARENT;
+            queue[tail++] = spurCode;
+            
+            while (head < tail) {
+                int current = queue[head++];
+                
+                if (current == targetCode) {
+                    return concatenate(rootPath, current);
+                }
+                
+                int numberOfSuccessors = codec.expand(current, successors);
+                
+                for (int i = 0; i < numberOfSuccessors; i++) {
+                    int child = successors[i];
+                    
+                    if (visitStamps[child] == stamp || 
+                            blockStamps[child] == stamp) {
+                        continue;
+                    }
+                    
+                    if (current == spurCode && 
+                            forbiddenStamps[child] == stamp) {
+                        continue;
+                    }
+                    
+                    visitStamps[child] = stamp;
+                    parents[child] = current;
+                    queue[tail++] = child;
+                }
+            }
+            
+            return null;
+        }
+        
+        private static boolean startsWith(int[] path, int[] prefix) {
+            for (int i = 0; i < prefix.length; i++) {
+                if (path[i] != prefix[i]) {
+                    return false;
+                }
+            }
+            
+            return true;
+        }
+        
+        private int[] concatenate(int[] rootPath, int targetCode) {
+            int spurLength = 0;
+            
+            for (int current = targetCode;
+                    current != PackedBFS.NO_PARENT;
+                    current = parents[current]) {
+                spurLength++;
+            }
+            
+            // The spur path starts at the last root node.
+            int[] path = Arrays.copyOf(rootPath, 
+                                       rootPath.length + spurLength - 1);
+            int index = path.length - 1;
+            
+            for (int current = targetCode;
+                    parents[current] != PackedBFS.NO_PARENT;
+                    current = parents[current]) {
+                path[index--] = current;
+            }
+            
+            return path;
+        }
+    }
+    
+    /**
+     * Wraps a path for hashing.
+     */
+    private static final class PathKey {
+        
+        private final int[] codes;
+        private final int hash;
+        
+        PathKey(int[] codes) {
+            this.codes = codes;
+            this.hash = Arrays.hashCode(codes);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) {
+                return true;
+            }
+            
+            if (!(o instanceof PathKey)) {
+                return false;
+            }
+            
+            return Arrays.equals(codes, ((PathKey) o).codes);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package net.coderodde.missionaries;
+
+/**
+ * This class holds the move generation tables of a game, compiled once per
+ * {@link GameParameters}:
+ * <ul>
+ *   <li>the legal boat loads {@code (m, c)} with {@code 1 <= m + c <= k},
+ *       {@code m <= M} and {@code c <= C}, grouped by {@code m} and sorted by
+ *       {@code c} within a group,</li>
+ *   <li>a bitmap telling, for every bank configuration, whether neither bank
+ *       has its missionaries outnumbered.</li>
+ * </ul>
+ * The tables use the layout of {@link StateCodec}: the configuration with
+ * {@code m} missionaries and {@code c} cannibals on the source bank has index
+ * {@code m * (C + 1) + c}, and the code of a state is its configuration index
+ * shifted left by one, with the boat bit in the lowest bit. Expanding a state
+ * is then a walk over the loads that fit, with no allocation.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class MoveTable {
+    
+    /**
+     * The total number of missionaries.
+     */
+    private final int totalNumberOfMissionaries;
+    
+    /**
+     * The total number of cannibals.
+     */
+    private final int totalNumberOfCannibals;
+    
+    /**
+     * {@code loadOffsets[m]} is the index of the first load carrying 
+     * {@code m} missionaries.
+     */
+    private final int[] loadOffsets;
+    
+    /**
+     * The number of cannibals of each load.
+     */
+    private final int[] loadCannibals;
+    
+    /**
+     * The change of the configuration index caused by each load.
+     */
+    private final int[] loadDeltas;
+    
+    /**
+     * Bit {@code i} is set if the configuration with index {@code i} is safe.
+     */
+    private final long[] safetyBitmap;
+    
+    MoveTable(GameParameters gameParameters) {
+        this.totalNumberOfMissionaries = 
+                gameParameters.getTotalNumberOfMissionaries();
+        this.totalNumberOfCannibals = 
+                gameParameters.getTotalNumberOfCannibals();
+        
+        int boatCapacity = gameParameters.getBoatCapacity();
+        int cannibalRadix = totalNumberOfCannibals + 1;
+        int maximumMissionaries = 
+                Math.min(boatCapacity, totalNumberOfMissionaries);
+        
+        this.loadOffsets = new int[maximumMissionaries + 2];
+        int numberOfLoads = 0;
+        
+        for (int m = 0; m <= maximumMissionaries; m++) {
+            loadOffsets[m] = numberOfLoads;
+            int maximumCannibals = 
+                    Math.min(boatCapacity - m, totalNumberOfCannibals);
+            
+            numberOfLoads += Math.max(maximumCannibals - (m == 0 ? 0 : -1), 
+                                      0);
+        }
+        
+        loadOffsets[maximumMissionaries + 1] = numberOfLoads;
+        this.loadCannibals = new int[numberOfLoads];
+        this.loadDeltas = new int[numberOfLoads];
+        int load = 0;
+        
+        for (int m = 0; m <= maximumMissionaries; m++) {
+            int maximumCannibals = 
+                    Math.min(boatCapacity - m, totalNumberOfCannibals);
+            
+            for (int c = (m == 0 ? 1 : 0); c <= maximumCannibals; c++) {
+                loadCannibals[load] = c;
+                loadDeltas[load] = m * cannibalRadix + c;
+                load++;
+            }
+        }
+        
+        int numberOfConfigurations = 
+                (totalNumberOfMissionaries + 1) * cannibalRadix;
+        this.safetyBitmap = new long[(numberOfConfigurations + 63) >>> 6];
+        
+        for (int m = 0; m <= totalNumberOfMissionaries; m++) {
+            for (int c = 0; c <= totalNumberOfCannibals; c++) {
+                if (computeSafety(m, c)) {
+                    int index = m * cannibalRadix + c;
+                    safetyBitmap[index >>> 6] |= 1L << index;
+                }
+            }
+        }
+    }
+    
+    int getNumberOfLoads() {
+        return loadCannibals.length;
+    }
+    
+    boolean isSafe(int numberOfMissionariesOnSourceBank,
+                   int numberOfCannibalsOnSourceBank) {
+        return isSafe(numberOfMissionariesOnSourceBank * 
+                      (totalNumberOfCannibals + 1) + 
+                      numberOfCannibalsOnSourceBank);
+    }
+    
+    /**
+     * Writes the codes of all the safe states reachable from {@code code} by a
+     * single boat trip into {@code successors}, ordered by the number of 
+     * missionaries and then by the number of cannibals in the boat.
+     * 
+     * @param code       the code of the state to expand.
+     * @param successors the output buffer. Must have room for at least 
+     *                   {@link #getNumberOfLoads()} codes.
+     * @return the number of successor codes written.
+     */
+    int expand(int code, int[] successors) {
+        int index = code >>> 1;
+        int missionaries = index / (totalNumberOfCannibals + 1);
+        int cannibals = index - missionaries * (totalNumberOfCannibals + 1);
+        int size = 0;
+        
+        if ((code & 1) == 0) {
+            // Row from the source bank to the target bank.
+            int maximumMissionaries = 
+                    Math.min(missionaries, loadOffsets.length - 2);
+            
+            for (int m = 0; m <= maximumMissionaries; m++) {
+                for (int load = loadOffsets[m], end = loadOffsets[m + 1];
+                        load < end && loadCannibals[load] <= cannibals;
+                        load++) {
+                    int childIndex = index - loadDeltas[load];
+                    
+                    if (isSafe(childIndex)) {
+                        successors[size++] = (childIndex << 1) | 1;
+                    }
+                }
+            }
+        } else {
+            // Row from the target bank back to the source bank.
+            int availableCannibals = totalNumberOfCannibals - cannibals;
+            int maximumMissionaries = 
+                    Math.min(totalNumberOfMissionaries - missionaries,
+                             loadOffsets.length - 2);
+            
+            for (int m = 0; m <= maximumMissionaries; m++) {
+                for (int load = loadOffsets[m], end = loadOffsets[m + 1];
+                        load < end && loadCannibals[load] <= availableCannibals;
+                        load++) {
+                    int childIndex = index + loadDeltas[load];
+                    
+                    if (isSafe(childIndex)) {
+                        successors[size++] = childIndex << 1;
+                    }
+                }
+            }
+        }
+        
+        return size;
+    }
+    
+    private boolean isSafe(int index) {
+        return (safetyBitmap[index >>> 6] & (1L << index)) != 0L;
+    }
+    
+    private boolean computeSafety(int numberOfMissionariesOnSourceBank,
+                                  int numberOfCannibalsOnSourceBank) {
+        if (numberOfMissionariesOnSourceBank > 0 &&
+            numberOfMissionariesOnSourceBank < numberOfCannibalsOnSourceBank) {
+            return false;
+        }
+        
+        int numberOfMissionariesOnTargetBank = 
+                totalNumberOfMissionaries - numberOfMissionariesOnSourceBank;
+        
+        int numberOfCannibalsOnTargetBank = 
+                totalNumberOfCannibals - numberOfCannibalsOnSourceBank;
+        
+        return numberOfMissionariesOnTargetBank == 0 ||
+               numberOfMissionariesOnTargetBank >= 
+               numberOfCannibalsOnTargetBank;
+    }
+}
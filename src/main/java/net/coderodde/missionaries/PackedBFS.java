@@ -0,0 +1,118 @@
+package net.coderodde.missionaries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class implements a breadth-first search over packed state codes (see
+ * {@link StateCodec}). Unlike {@link BFS}, it keeps the parent links in a dense
+ * {@code int} array indexed by state code and creates {@link StateNode} 
+ * objects only while tracing back the solution path.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class PackedBFS {
+    
+    /**
+     * Marks the parent of the source state.
+     */
+    static final int NO_PARENT = -1;
+    
+    /**
+     * Marks the states not yet reached.
+     */
+    static final int UNVISITED = -2;
+    
+    static List<StateNode> search(StateNode source, StateNode target) {
+        return search(source, target, new SearchStatistics());
+    }
+    
+    static List<StateNode> search(StateNode source, 
+                                  StateNode target,
+                                  SearchStatistics statistics) {
+        long startTime = System.nanoTime();
+        StateNodeRegistry registry = StateNodeRegistry.get(source);
+        StateCodec codec = registry.getCodec();
+        int sourceCode = codec.encode(source);
+        int targetCode = codec.encode(target);
+        int[] parents = new int[codec.getNumberOfStates()];
+        int[] queue = new int[codec.getNumberOfStates()];
+        int[] successors = new int[codec.getMaximumNumberOfSuccessors()];
+        int head = 0;
+        int tail = 0;
+        long numberOfGeneratedNodes = 0L;
+        int peakFrontierSize = 1;
+        
+        Arrays.fill(parents, UNVISITED);
+        parents[sourceCode] = NO_PARENT;
+        queue[tail++] = sourceCode;
+        
+        try {
+            while (head < tail) {
+                int current = queue[head++];
+                
+                if (current == targetCode) {
+                    long tracebackStartTime = System.nanoTime();
+                    List<StateNode> path = 
+                            tracebackPath(targetCode, parents, registry);
+                    statistics.setPhaseDurationNanos(
+                            SearchPhase.SEARCH,
+                            tracebackStartTime - startTime);
+                    statistics.setPhaseDurationNanos(
+                            SearchPhase.TRACEBACK,
+                            System.nanoTime() - tracebackStartTime);
+                    statistics.setNumberOfExpandedNodes(head - 1);
+                    return path;
+                }
+                
+                int numberOfSuccessors = codec.expand(current, successors);
+                numberOfGeneratedNodes += numberOfSuccessors;
+                
+                for (int i = 0; i < numberOfSuccessors; i++) {
+                    int child = successors[i];
+                    
+                    if (parents[child] == UNVISITED) {
+                        parents[child] = current;
+                        queue[tail++] = child;
+                    }
+                }
+                
+                peakFrontierSize = Math.max(peakFrontierSize, tail - head);
+            }
+            
+            statistics.setPhaseDurationNanos(SearchPhase.SEARCH,
+                                             System.nanoTime() - startTime);
+            statistics.setNumberOfExpandedNodes(head);
+            throw new IllegalStateException();
+        } finally {
+            statistics.setNumberOfGeneratedNodes(numberOfGeneratedNodes);
+            statistics.setNumberOfRejectedDuplicates(
+                    numberOfGeneratedNodes - tail + 1);
+            statistics.setPeakFrontierSize(peakFrontierSize);
+            statistics.setNumberOfVisitedNodes(tail);
+            statistics.publish("PackedBFS");
+        }
+    }
+    
+    static List<StateNode> tracebackPath(int targetCode,
+                                         int[] parents,
+                                         StateNodeRegistry registry) {
+        List<StateNode> path = new ArrayList<>();
+        int current = targetCode;
+        
+        while (current != NO_PARENT) {
+            path.add(registry.getStateNode(current));
+            current = parents[current];
+        }
+        
+        Collections.<StateNode>reverse(path);
+        return path;
+    }
+    
+    private PackedBFS() {
+        
+    }
+}
@@ -0,0 +1,132 @@
+package net.coderodde.missionaries;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * This class implements a level-synchronous parallel breadth-first search over
+ * packed state codes. Each layer is processed in two parallel passes over the
+ * frontier:
+ * <ol>
+ *   <li>every frontier state claims each of its unvisited neighbors by 
+ *       lowering, with compare-and-set, the neighbor's claim to 
+ *       {@code (layer << 32) | position}, where {@code position} is the index
+ *       of the claiming state in the frontier,</li>
+ *   <li>every frontier state collects the neighbors it won, in expansion 
+ *       order, and becomes their parent.</li>
+ * </ol>
+ * Since the frontier state with the lowest position wins each neighbor and the
+ * next frontier is concatenated in frontier order, both the parents and the 
+ * layer order are exactly the ones of the sequential {@link PackedBFS}, so the
+ * two return the same path.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class ParallelBFS {
+    
+    /**
+     * The claim of the states not yet reached.
+     */
+    private static final long UNCLAIMED = Long.MAX_VALUE;
+    
+    static List<StateNode> search(StateNode source, StateNode target) {
+        return search(source, target, ForkJoinPool.commonPool());
+    }
+    
+    static List<StateNode> search(StateNode source,
+                                  StateNode target,
+                                  ForkJoinPool pool) {
+        StateNodeRegistry registry = StateNodeRegistry.get(source);
+        StateCodec codec = registry.getCodec();
+        int sourceCode = codec.encode(source);
+        int targetCode = codec.encode(target);
+        int[] parents = new int[codec.getNumberOfStates()];
+        AtomicLongArray claims = new AtomicLongArray(codec.getNumberOfStates());
+        ThreadLocal<int[]> successorBuffers = 
+                ThreadLocal.withInitial(
+                        () -> new int[codec.getMaximumNumberOfSuccessors()]);
+        
+        for (int i = 0; i < claims.length(); i++) {
+            claims.set(i, UNCLAIMED);
+        }
+        
+        Arrays.fill(parents, PackedBFS.UNVISITED);
+        parents[sourceCode] = PackedBFS.NO_PARENT;
+        claims.set(sourceCode, 0L);
+        int[] frontier = { sourceCode };
+        
+        for (long layer = 1L; 
+                frontier.length > 0 && claims.get(targetCode) == UNCLAIMED;
+                layer++) {
+            int[] currentFrontier = frontier;
+            long layerBase = layer << 32;
+            
+            pool.submit(() -> 
+                IntStream.range(0, currentFrontier.length)
+                         .parallel()
+                         .forEach(i -> {
+                             int[] successors = successorBuffers.get();
+                             int numberOfSuccessors = 
+                                     codec.expand(currentFrontier[i], 
+                                                  successors);
+                             
+                             for (int j = 0; j < numberOfSuccessors; j++) {
+                                 claim(claims, successors[j], layerBase | i);
+                             }
+                         })).join();
+            
+            frontier = pool.submit(() -> 
+                IntStream.range(0, currentFrontier.length)
+                         .parallel()
+                         .flatMap(i -> {
+                             int[] successors = successorBuffers.get();
+                             int numberOfSuccessors = 
+                                     codec.expand(currentFrontier[i],
+                                                  successors);
+                             IntStream.Builder builder = IntStream.builder();
+                             
+                             for (int j = 0; j < numberOfSuccessors; j++) {
+                                 int child = successors[j];
+                                 
+                                 if (claims.get(child) == (layerBase | i)) {
+                                     parents[child] = currentFrontier[i];
+                                     builder.add(child);
+                                 }
+                             }
+                             
+                             return builder.build();
+                         })
+                         .toArray()).join();
+        }
+        
+        if (claims.get(targetCode) == UNCLAIMED) {
+            throw new IllegalStateException();
+        }
+        
+        return PackedBFS.tracebackPath(targetCode, parents, registry);
+    }
+    
+    /**
+     * Lowers the claim of {@code code} to {@code claim} unless it is already
+     * lower.
+     */
+    private static void claim(AtomicLongArray claims, int code, long claim) {
+        long currentClaim = claims.get(code);
+        
+        while (claim < currentClaim) {
+            if (claims.compareAndSet(code, currentClaim, claim)) {
+                return;
+            }
+            
+            currentClaim = claims.get(code);
+        }
+    }
+    
+    private ParallelBFS() {
+        
+    }
+}
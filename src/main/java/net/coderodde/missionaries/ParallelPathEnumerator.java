@@ -0,0 +1,273 @@
+package net.coderodde.missionaries;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * This class enumerates all the paths of a {@link ShortestPathDag} on a
+ * fork/join pool. The DAG is split by the first few boat trips: every distinct
+ * prefix of that many trips roots an independent subtree of paths, which a
+ * separate task enumerates depth-first into its own buffer. The buffers are
+ * handed to the sink under a lock, so the sink need not be thread-safe.
+ * <p>
+ * In {@link Order#ORDERED} mode the paths reach the sink in the same order as
+ * {@link ShortestPathDag#iterator()} yields them: a finished buffer is held
+ * back until the buffers of all the preceding prefixes have been delivered.
+ * In {@link Order#UNORDERED} mode every task flushes its buffer as soon as it
+ * fills up, which bounds the memory and avoids the waiting.
+ * <p>
+ * The partitioning is fixed: there is exactly one task per prefix, and a task
+ * never splits its subtree further, so the parallelism is limited by the 
+ * number of prefixes and a single large subtree may keep one worker busy long
+ * after the others have finished. A longer prefix yields more and smaller 
+ * tasks. In ordered mode, each task buffers its whole subtree, and the 
+ * buffers finished ahead of their turn are held as well, so memory use may 
+ * grow to all the paths of the DAG; for large DAGs prefer the unordered mode or
+ * the sequential {@link ShortestPathDag#iterator()}.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class ParallelPathEnumerator {
+
+    /**
+     * The supported delivery orders.
+     */
+    enum Order {
+    
+        /**
+         * The order of {@link ShortestPathDag#iterator()}.
+         */
+        ORDERED,
+        
+        /**
+         * Any order.
+         */
+        UNORDERED
+    }
+    
+    /**
+     * The number of paths an unordered task collects before flushing them.
+     */
+    private static final int FLUSH_THRESHOLD = 1024;
+    
+    /**
+     * The DAG whose paths to enumerate.
+     */
+    private final ShortestPathDag dag;
+    
+    /**
+     * The delivery order.
+     */
+    private final Order order;
+    
+    /**
+     * The consumer of the paths. Guarded by {@code this}.
+     */
+    private final Consumer<? super StateNodePath> sink;
+    
+    /**
+     * The finished buffers waiting for their turn in ordered mode. Guarded by
+     * {@code this}.
+     */
+    private final List<List<StateNodePath>> completedBuffers;
+    
+    /**
+     * The index of the next prefix to deliver in ordered mode. Guarded by
+     * {@code this}.
+     */
+    private int nextPrefixIndex;
+    
+    private ParallelPathEnumerator(ShortestPathDag dag,
+                                   Order order,
+                                   Consumer<? super StateNodePath> sink,
+                                   int numberOfPrefixes) {
+        this.dag = dag;
+        this.order = order;
+        this.sink = sink;
+        this.completedBuffers = new ArrayList<>(numberOfPrefixes);
+        
+        for (int i = 0; i < numberOfPrefixes; i++) {
+            completedBuffers.add(null);
+        }
+    }
+    
+    static void enumerate(ShortestPathDag dag,
+                          int prefixLength,
+                          Order order,
+                          Consumer<? super StateNodePath> sink) {
+        enumerate(dag, prefixLength, order, sink, ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Feeds all the paths of {@code dag} to {@code sink}.
+     *
+     * @param dag          the DAG whose paths to enumerate.
+     * @param prefixLength the number of boat trips in the prefixes that
+     *                     partition the paths.
+     * @param order        the delivery order.
+     * @param sink         the consumer of the paths.
+     * @param pool         the pool running the tasks.
+     */
+    static void enumerate(ShortestPathDag dag,
+                          int prefixLength,
+                          Order order,
+                          Consumer<? super StateNodePath> sink,
+                          ForkJoinPool pool) {
+        if (prefixLength < 0) {
+            throw new IllegalArgumentException(
+                    "The prefix length is too small. Must be at least 0.");
+        }
+        
+        if (dag.getPathLength() == 0) {
+            return;
+        }
+        
+        List<StateNodePath> prefixes = new ArrayList<>();
+        List<Integer> prefixEnds = new ArrayList<>();
+        collectPrefixes(dag,
+                        0,
+                        new StateNodePath(dag.getStateNode(0)),
+                        Math.min(prefixLength, dag.getPathLength() - 1),
+                        prefixes,
+                        prefixEnds);
+        
+        ParallelPathEnumerator enumerator =
+                new ParallelPathEnumerator(dag, order, sink, prefixes.size());
+        List<SubtreeTask> tasks = new ArrayList<>(prefixes.size());
+        
+        for (int i = 0; i < prefixes.size(); i++) {
+            tasks.add(enumerator.new SubtreeTask(i,
+                                                 prefixes.get(i),
+                                                 prefixEnds.get(i)));
+        }
+        
+        pool.invoke(new RecursiveAction() {
+            
+            private static final long serialVersionUID = 1L;
+            
+            @Override
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        });
+    }
+    
+    /**
+     * Collects the prefixes of {@code remainingTrips} more trips extending
+     * {@code prefix}, which ends at {@code node}, in depth-first order.
+     */
+    private static void collectPrefixes(ShortestPathDag dag,
+                                        int node,
+                                        StateNodePath prefix,
+                                        int remainingTrips,
+                                        List<StateNodePath> prefixes,
+                                        List<Integer> prefixEnds) {
+        if (remainingTrips == 0) {
+            prefixes.add(prefix);
+            prefixEnds.add(node);
+            return;
+        }
+        
+        for (int arc = dag.getOffset(node);
+                arc < dag.getOffset(node + 1);
+                arc++) {
+            int child = dag.getSuccessor(arc);
+            collectPrefixes(dag,
+                            child,
+                            prefix.append(dag.getStateNode(child)),
+                            remainingTrips - 1,
+                            prefixes,
+                            prefixEnds);
+        }
+    }
+    
+    private synchronized void deliver(List<StateNodePath> buffer) {
+        buffer.forEach(sink);
+    }
+    
+    /**
+     * Stores the finished buffer of a prefix and delivers all the buffers
+     * whose predecessors have been delivered.
+     */
+    private synchronized void deliverInOrder(int prefixIndex,
+                                             List<StateNodePath> buffer) {
+        completedBuffers.set(prefixIndex, buffer);
+        
+        while (nextPrefixIndex < completedBuffers.size() &&
+                completedBuffers.get(nextPrefixIndex) != null) {
+            completedBuffers.get(nextPrefixIndex).forEach(sink);
+            completedBuffers.set(nextPrefixIndex++, null);
+        }
+    }
+    
+    /**
+     * This class implements the depth-first enumeration of the paths sharing
+     * a prefix.
+     */
+    private final class SubtreeTask extends RecursiveAction {
+    
+        private static final long serialVersionUID = 1L;
+        
+        private final int prefixIndex;
+        private final StateNodePath prefix;
+        private final int prefixEnd;
+        
+        SubtreeTask(int prefixIndex, StateNodePath prefix, int prefixEnd) {
+            this.prefixIndex = prefixIndex;
+            this.prefix = prefix;
+            this.prefixEnd = prefixEnd;
+        }
+        
+        @Override
+        protected void compute() {
+            int pathLength = dag.getPathLength();
+            int firstDepth = prefix.getNumberOfNodes() - 1;
+            int[] nodes = new int[pathLength];
+            int[] cursors = new int[pathLength];
+            StateNodePath[] paths = new StateNodePath[pathLength];
+            List<StateNodePath> buffer = new ArrayList<>();
+            int depth = firstDepth;
+            
+            nodes[depth] = prefixEnd;
+            cursors[depth] = dag.getOffset(prefixEnd);
+            paths[depth] = prefix;
+            
+            while (depth >= firstDepth) {
+                if (depth == pathLength - 1) {
+                    buffer.add(paths[depth]);
+                    
+                    if (order == Order.UNORDERED &&
+                            buffer.size() == FLUSH_THRESHOLD) {
+                        deliver(buffer);
+                        buffer.clear();
+                    }
+                    
+                    depth--;
+                    continue;
+                }
+                
+                if (cursors[depth] == dag.getOffset(nodes[depth] + 1)) {
+                    depth--;
+                    continue;
+                }
+                
+                int child = dag.getSuccessor(cursors[depth]++);
+                depth++;
+                nodes[depth] = child;
+                cursors[depth] = dag.getOffset(child);
+                paths[depth] =
+                        paths[depth - 1].append(dag.getStateNode(child));
+            }
+            
+            if (order == Order.UNORDERED) {
+                deliver(buffer);
+            } else {
+                deliverInOrder(prefixIndex, buffer);
+            }
+        }
+    }
+}
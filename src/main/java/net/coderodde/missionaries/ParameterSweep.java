@@ -0,0 +1,180 @@
+package net.coderodde.missionaries;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * This class solves every combination of the given ranges of missionaries, 
+ * cannibals and boat capacities on a work-stealing pool. Each result is 
+ * written out as soon as its configuration is solved, so the rows appear in
+ * completion order.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class ParameterSweep {
+    
+    /**
+     * The supported output formats.
+     */
+    enum Format {
+        
+        /**
+         * Comma-separated values with a header row.
+         */
+        CSV,
+        
+        /**
+         * One JSON object per line.
+         */
+        JSONL
+    }
+    
+    private final int minimumNumberOfMissionaries;
+    private final int maximumNumberOfMissionaries;
+    private final int minimumNumberOfCannibals;
+    private final int maximumNumberOfCannibals;
+    private final int minimumBoatCapacity;
+    private final int maximumBoatCapacity;
+    
+    ParameterSweep(int minimumNumberOfMissionaries,
+                   int maximumNumberOfMissionaries,
+                   int minimumNumberOfCannibals,
+                   int maximumNumberOfCannibals,
+                   int minimumBoatCapacity,
+                   int maximumBoatCapacity) {
+        checkRange("missionaries", 
+                   minimumNumberOfMissionaries,
+                   maximumNumberOfMissionaries);
+        checkRange("cannibals",
+                   minimumNumberOfCannibals,
+                   maximumNumberOfCannibals);
+        checkRange("boat capacity",
+                   minimumBoatCapacity,
+                   maximumBoatCapacity);
+        this.minimumNumberOfMissionaries = minimumNumberOfMissionaries;
+        this.maximumNumberOfMissionaries = maximumNumberOfMissionaries;
+        this.minimumNumberOfCannibals = minimumNumberOfCannibals;
+        this.maximumNumberOfCannibals = maximumNumberOfCannibals;
+        this.minimumBoatCapacity = minimumBoatCapacity;
+        this.maximumBoatCapacity = maximumBoatCapacity;
+    }
+    
+    /**
+     * Solves all the configurations on a work-stealing pool of the given 
+     * parallelism and streams the results to {@code writer}.
+     * 
+     * @param writer      the output writer.
+     * @param format      the output format.
+     * @param parallelism the number of worker threads.
+     * @throws IOException if writing fails.
+     */
+    void run(Writer writer, Format format, int parallelism) 
+            throws IOException {
+        if (format == Format.CSV) {
+            writeRow(writer, SweepResult.CSV_HEADER);
+        }
+        
+        List<Callable<Void>> tasks = new ArrayList<>();
+        
+        for (int m = minimumNumberOfMissionaries;
+                m <= maximumNumberOfMissionaries; 
+                m++) {
+            for (int c = minimumNumberOfCannibals; 
+                    c <= maximumNumberOfCannibals;
+                    c++) {
+                for (int k = minimumBoatCapacity; 
+                        k <= maximumBoatCapacity; 
+                        k++) {
+                    GameParameters gameParameters = 
+                            new GameParameters(m, c, k);
+                    
+                    tasks.add(() -> {
+                        SweepResult result = solve(gameParameters);
+                        writeRow(writer, 
+                                 format == Format.CSV ? 
+                                         result.toCsvRow() : 
+                                         result.toJsonLine());
+                        return null;
+                    });
+                }
+            }
+        }
+        
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        
+        try {
+            for (Future<Void> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("The sweep was interrupted.", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) ex.getCause()).getCause();
+            }
+            
+            throw new IllegalStateException(ex.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+    
+    static SweepResult solve(GameParameters gameParameters) {
+        long startTime = System.nanoTime();
+        // A private registry, so that the sweep neither piles up registries 
+        // nor drops the shared ones from under concurrent users.
+        StateNodeRegistry registry = 
+                StateNodeRegistry.createPrivate(gameParameters);
+        StateNode source = 
+                registry.getStateNode(
+                        gameParameters.getTotalNumberOfMissionaries(),
+                        gameParameters.getTotalNumberOfCannibals(),
+                        BoatLocation.SOURCE_RIVER_BANK);
+        StateNode target = 
+                registry.getStateNode(0, 0, BoatLocation.TARGET_RIVER_BANK);
+        SearchStatistics statistics = new SearchStatistics();
+        // A single layered search yields both the length and the count.
+        ShortestPathCounter.Result result = 
+                ShortestPathCounter.search(source, target, statistics);
+        
+        return new SweepResult(gameParameters,
+                               result.getLength(),
+                               result.getNumberOfShortestPaths(),
+                               statistics.getNumberOfVisitedNodes(),
+                               System.nanoTime() - startTime);
+    }
+    
+    private static void writeRow(Writer writer, String row) {
+        try {
+            synchronized (writer) {
+                writer.write(row);
+                writer.write(System.lineSeparator());
+                writer.flush();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+    
+    private static void checkRange(String name, int minimum, int maximum) {
+        if (minimum < 0) {
+            throw new IllegalArgumentException(
+                    "Negative minimum " + name + " (" + minimum + ").");
+        }
+        
+        if (minimum > maximum) {
+            throw new IllegalArgumentException(
+                    "Empty " + name + " range [" + minimum + ", " + 
+                    maximum + "].");
+        }
+    }
+}
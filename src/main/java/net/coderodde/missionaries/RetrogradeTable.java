@@ -0,0 +1,179 @@
+package net.coderodde.missionaries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class stores, for every state of a game, the number of boat trips to
+ * the target state and the first trip of an optimal plan. Both are computed 
+ * by a single breadth-first search backwards from the target state; as every
+ * trip between two safe states can be undone, the backward search expands the
+ * same neighbors as the forward one. Once built, the table answers the 
+ * distance and next move queries by array lookups.
+ * <p>
+ * The unsafe states are never entered by a trip, so the backward search does 
+ * not label them. Queries starting from such a state fall back to inspecting 
+ * its neighbors.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class RetrogradeTable {
+    
+    /**
+     * Marks the states from which the target is not reachable.
+     */
+    static final int UNREACHABLE = -1;
+    
+    /**
+     * The registry of the state nodes.
+     */
+    private final StateNodeRegistry registry;
+    
+    /**
+     * The number of boat trips from each state to the target.
+     */
+    private final int[] distances;
+    
+    /**
+     * The code of the state following each state on an optimal plan.
+     */
+    private final int[] nextMoves;
+    
+    private RetrogradeTable(StateNodeRegistry registry,
+                            int[] distances,
+                            int[] nextMoves) {
+        this.registry = registry;
+        this.distances = distances;
+        this.nextMoves = nextMoves;
+    }
+    
+    static RetrogradeTable build(GameParameters gameParameters) {
+        StateNodeRegistry registry = StateNodeRegistry.get(gameParameters);
+        StateCodec codec = registry.getCodec();
+        int targetCode = 
+                codec.encode(StateNode.getTargetState(gameParameters));
+        int[] distances = new int[codec.getNumberOfStates()];
+        int[] nextMoves = new int[codec.getNumberOfStates()];
+        int[] queue = new int[codec.getNumberOfStates()];
+        int[] successors = new int[codec.getMaximumNumberOfSuccessors()];
+        int head = 0;
+        int tail = 0;
+        
+        Arrays.fill(distances, UNREACHABLE);
+        Arrays.fill(nextMoves, PackedBFS.NO_PARENT);
+        distances[targetCode] = 0;
+        
+        if (codec.isSafe(0, 0)) {
+            queue[tail++] = targetCode;
+        }
+        
+        while (head < tail) {
+            int current = queue[head++];
+            int numberOfSuccessors = codec.expand(current, successors);
+            
+            for (int i = 0; i < numberOfSuccessors; i++) {
+                int child = successors[i];
+                
+                if (distances[child] == UNREACHABLE) {
+                    distances[child] = distances[current] + 1;
+                    nextMoves[child] = current;
+                    queue[tail++] = child;
+                }
+            }
+        }
+        
+        return new RetrogradeTable(registry, distances, nextMoves);
+    }
+    
+    /**
+     * Returns the optimal number of boat trips from {@code stateNode} to the 
+     * target state.
+     * 
+     * @param stateNode the state to start from.
+     * @return the number of boat trips, or {@link #UNREACHABLE}.
+     */
+    int getDistance(StateNode stateNode) {
+        return getDistance(registry.getCodec().encode(stateNode));
+    }
+    
+    /**
+     * Returns the state following {@code stateNode} on an optimal plan.
+     * 
+     * @param stateNode the state to start from.
+     * @return the next state, or {@code null} if {@code stateNode} is the 
+     *         target state or the target is not reachable.
+     */
+    StateNode getNextMove(StateNode stateNode) {
+        int nextMove = getNextMove(registry.getCodec().encode(stateNode));
+        return nextMove == PackedBFS.NO_PARENT ? 
+               null : 
+               registry.getStateNode(nextMove);
+    }
+    
+    /**
+     * Returns an optimal plan from {@code stateNode} to the target state.
+     * 
+     * @param stateNode the state to start from.
+     * @return the list of states, starting from {@code stateNode} and ending at
+     *         the target state.
+     * @throws IllegalStateException if the target is not reachable.
+     */
+    List<StateNode> getPlan(StateNode stateNode) {
+        int code = registry.getCodec().encode(stateNode);
+        int distance = getDistance(code);
+        
+        if (distance == UNREACHABLE) {
+            throw new IllegalStateException();
+        }
+        
+        List<StateNode> plan = new ArrayList<>(distance + 1);
+        
+        for (; code != PackedBFS.NO_PARENT; code = getNextMove(code)) {
+            plan.add(registry.getStateNode(code));
+        }
+        
+        return plan;
+    }
+    
+    private int getDistance(int code) {
+        if (distances[code] != UNREACHABLE || isSafe(code)) {
+            return distances[code];
+        }
+        
+        int nextMove = getNextMove(code);
+        return nextMove == PackedBFS.NO_PARENT ? 
+               UNREACHABLE : 
+               distances[nextMove] + 1;
+    }
+    
+    private int getNextMove(int code) {
+        if (distances[code] != UNREACHABLE || isSafe(code)) {
+            return nextMoves[code];
+        }
+        
+        StateCodec codec = registry.getCodec();
+        int[] successors = new int[codec.getMaximumNumberOfSuccessors()];
+        int numberOfSuccessors = codec.expand(code, successors);
+        int bestMove = PackedBFS.NO_PARENT;
+        
+        for (int i = 0; i < numberOfSuccessors; i++) {
+            int child = successors[i];
+            
+            if (distances[child] != UNREACHABLE &&
+                    (bestMove == PackedBFS.NO_PARENT ||
+                     distances[child] < distances[bestMove])) {
+                bestMove = child;
+            }
+        }
+        
+        return bestMove;
+    }
+    
+    private boolean isSafe(int code) {
+        StateCodec codec = registry.getCodec();
+        return codec.isSafe(codec.getNumberOfMissionariesOnSourceBank(code),
+                            codec.getNumberOfCannibalsOnSourceBank(code));
+    }
+}
@@ -0,0 +1,19 @@
+package net.coderodde.missionaries;
+
+/**
+ * This interface is notified with the statistics of every search run with a
+ * {@link SearchStatistics} object it is attached to.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+interface SearchListener {
+    
+    /**
+     * Called once the search is over, whether it found the target or not.
+     * 
+     * @param algorithmName the name of the search algorithm.
+     * @param statistics    the statistics of the search.
+     */
+    void onSearchFinished(String algorithmName, SearchStatistics statistics);
+}
@@ -0,0 +1,20 @@
+package net.coderodde.missionaries;
+
+/**
+ * This enumeration lists the timed phases of a search.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+enum SearchPhase {
+    
+    /**
+     * Expanding the states until the target is reached.
+     */
+    SEARCH,
+    
+    /**
+     * Building the solution path(s) out of the search data.
+     */
+    TRACEBACK
+}
@@ -0,0 +1,133 @@
+package net.coderodde.missionaries;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * This class holds the statistics of a single search. The solvers count in 
+ * local variables and store the totals here once the search is over, so 
+ * collecting the statistics costs next to nothing. An optional 
+ * {@link SearchListener} is notified with the final statistics.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class SearchStatistics {
+    
+    /**
+     * The listener to notify, or {@code null}.
+     */
+    private final SearchListener listener;
+    
+    /**
+     * The number of successors generated.
+     */
+    private long numberOfGeneratedNodes;
+    
+    /**
+     * The number of states whose neighbors were generated.
+     */
+    private long numberOfExpandedNodes;
+    
+    /**
+     * The number of generated successors dropped as already visited.
+     */
+    private long numberOfRejectedDuplicates;
+    
+    /**
+     * The largest number of states waiting for expansion at a time.
+     */
+    private long peakFrontierSize;
+    
+    /**
+     * The number of distinct states reached. None of the solvers ever drops a
+     * visited state, so this is also the peak size of the visited set.
+     */
+    private long numberOfVisitedNodes;
+    
+    /**
+     * The time spent in each phase in nanoseconds.
+     */
+    private final Map<SearchPhase, Long> phaseDurations = 
+            new EnumMap<>(SearchPhase.class);
+    
+    SearchStatistics() {
+        this(null);
+    }
+    
+    SearchStatistics(SearchListener listener) {
+        this.listener = listener;
+    }
+    
+    long getNumberOfGeneratedNodes() {
+        return numberOfGeneratedNodes;
+    }
+    
+    long getNumberOfExpandedNodes() {
+        return numberOfExpandedNodes;
+    }
+    
+    long getNumberOfRejectedDuplicates() {
+        return numberOfRejectedDuplicates;
+    }
+    
+    long getPeakFrontierSize() {
+        return peakFrontierSize;
+    }
+    
+    long getNumberOfVisitedNodes() {
+        return numberOfVisitedNodes;
+    }
+    
+    long getPhaseDurationNanos(SearchPhase phase) {
+        Long duration = phaseDurations.get(phase);
+        return duration == null ? 0L : duration;
+    }
+    
+    void setNumberOfGeneratedNodes(long numberOfGeneratedNodes) {
+        this.numberOfGeneratedNodes = numberOfGeneratedNodes;
+    }
+    
+    void setNumberOfExpandedNodes(long numberOfExpandedNodes) {
+        this.numberOfExpandedNodes = numberOfExpandedNodes;
+    }
+    
+    void setNumberOfRejectedDuplicates(long numberOfRejectedDuplicates) {
+        this.numberOfRejectedDuplicates = numberOfRejectedDuplicates;
+    }
+    
+    void setPeakFrontierSize(long peakFrontierSize) {
+        this.peakFrontierSize = peakFrontierSize;
+    }
+    
+    void setNumberOfVisitedNodes(long numberOfVisitedNodes) {
+        this.numberOfVisitedNodes = numberOfVisitedNodes;
+    }
+    
+    void setPhaseDurationNanos(SearchPhase phase, long durationNanos) {
+        phaseDurations.put(phase, durationNanos);
+    }
+    
+    /**
+     * Notifies the listener, if any, that the search is over.
+     * 
+     * @param algorithmName the name of the search algorithm.
+     */
+    void publish(String algorithmName) {
+        if (listener != null) {
+            listener.onSearchFinished(algorithmName, this);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return "[generated: " + numberOfGeneratedNodes + 
+               ", expanded: " + numberOfExpandedNodes + 
+               ", duplicates: " + numberOfRejectedDuplicates +
+               ", peak frontier: " + peakFrontierSize +
+               ", visited: " + numberOfVisitedNodes + 
+               ", search: " + getPhaseDurationNanos(SearchPhase.SEARCH) +
+               " ns, traceback: " + 
+               getPhaseDurationNanos(SearchPhase.TRACEBACK) + " ns]";
+    }
+}
@@ -0,0 +1,173 @@
+package net.coderodde.missionaries;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * This class counts the shortest paths between two states without building
+ * any of them. It runs a single breadth-first search over packed state codes
+ * and accumulates, for each state, the sum of the path counts of its 
+ * predecessors on the previous layer. The counts are kept in a {@code long} 
+ * array and moved to {@link BigInteger}s once they overflow. As the search is
+ * layered, it yields the length of the shortest paths along with their 
+ * number.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class ShortestPathCounter {
+    
+    /**
+     * Marks the states not yet reached.
+     */
+    private static final int UNVISITED = -1;
+    
+    /**
+     * This class holds the length and the number of the shortest paths.
+     */
+    static final class Result {
+        
+        /**
+         * The number of boat trips in a shortest path, or -1 if the target is
+         * not reachable.
+         */
+        private final int length;
+        
+        /**
+         * The number of shortest paths.
+         */
+        private final BigInteger numberOfShortestPaths;
+        
+        private Result(int length, BigInteger numberOfShortestPaths) {
+            this.length = length;
+            this.numberOfShortestPaths = numberOfShortestPaths;
+        }
+        
+        int getLength() {
+            return length;
+        }
+        
+        BigInteger getNumberOfShortestPaths() {
+            return numberOfShortestPaths;
+        }
+    }
+    
+    /**
+     * Counts the shortest paths from {@code source} to {@code target} in 
+     * {@code O(V + E)} time.
+     * 
+     * @param source the source state.
+     * @param target the target state.
+     * @return the number of shortest paths, or zero if {@code target} is not
+     *         reachable from {@code source}.
+     */
+    static BigInteger count(StateNode source, StateNode target) {
+        return search(source, target, new SearchStatistics())
+                .getNumberOfShortestPaths();
+    }
+    
+    /**
+     * Finds the length and the number of the shortest paths from 
+     * {@code source} to {@code target} in a single breadth-first search.
+     * 
+     * @param source     the source state.
+     * @param target     the target state.
+     * @param statistics the statistics to fill in.
+     * @return the length and the number of the shortest paths. The length is
+     *         -1 and the number is zero if {@code target} is not reachable 
+     *         from {@code source}.
+     */
+    static Result search(StateNode source, 
+                         StateNode target,
+                         SearchStatistics statistics) {
+        long startTime = System.nanoTime();
+        StateCodec codec = StateNodeRegistry.get(source).getCodec();
+        int sourceCode = codec.encode(source);
+        int targetCode = codec.encode(target);
+        int[] distances = new int[codec.getNumberOfStates()];
+        long[] counts = new long[codec.getNumberOfStates()];
+        BigInteger[] bigCounts = null;
+        int[] queue = new int[codec.getNumberOfStates()];
+        int[] successors = new int[codec.getMaximumNumberOfSuccessors()];
+        int head = 0;
+        int tail = 0;
+        long numberOfExpandedNodes = 0L;
+        long numberOfGeneratedNodes = 0L;
+        int peakFrontierSize = 1;
+        
+        Arrays.fill(distances, UNVISITED);
+        distances[sourceCode] = 0;
+        counts[sourceCode] = 1L;
+        queue[tail++] = sourceCode;
+        
+        while (head < tail) {
+            int current = queue[head++];
+            
+            if (distances[targetCode] != UNVISITED && 
+                    distances[current] >= distances[targetCode]) {
+                // All the predecessors of the target are processed.
+                break;
+            }
+            
+            int childDistance = distances[current] + 1;
+            int numberOfSuccessors = codec.expand(current, successors);
+            numberOfExpandedNodes++;
+            numberOfGeneratedNodes += numberOfSuccessors;
+            
+            for (int i = 0; i < numberOfSuccessors; i++) {
+                int child = successors[i];
+                
+                if (distances[child] == UNVISITED) {
+                    distances[child] = childDistance;
+                    queue[tail++] = child;
+                } else if (distances[child] != childDistance) {
+                    continue;
+                }
+                
+                if (bigCounts == null) {
+                    long sum = counts[child] + counts[current];
+                    
+                    if (sum >= 0L) {
+                        counts[child] = sum;
+                        continue;
+                    }
+                    
+                    bigCounts = toBigIntegers(counts);
+                }
+                
+                bigCounts[child] = bigCounts[child].add(bigCounts[current]);
+            }
+            
+            peakFrontierSize = Math.max(peakFrontierSize, tail - head);
+        }
+        
+        statistics.setPhaseDurationNanos(SearchPhase.SEARCH,
+                                         System.nanoTime() - startTime);
+        statistics.setNumberOfGeneratedNodes(numberOfGeneratedNodes);
+        statistics.setNumberOfExpandedNodes(numberOfExpandedNodes);
+        statistics.setNumberOfRejectedDuplicates(
+                numberOfGeneratedNodes - tail + 1);
+        statistics.setPeakFrontierSize(peakFrontierSize);
+        statistics.setNumberOfVisitedNodes(tail);
+        statistics.publish("ShortestPathCounter");
+        
+        return new Result(distances[targetCode],
+                          bigCounts != null ? 
+                                  bigCounts[targetCode] :
+                                  BigInteger.valueOf(counts[targetCode]));
+    }
+    
+    private static BigInteger[] toBigIntegers(long[] counts) {
+        BigInteger[] bigCounts = new BigInteger[counts.length];
+        
+        for (int i = 0; i < counts.length; i++) {
+            bigCounts[i] = BigInteger.valueOf(counts[i]);
+        }
+        
+        return bigCounts;
+    }
+    
+    private ShortestPathCounter() {
+        
+    }
+}
@@ -0,0 +1,326 @@
+package net.coderodde.missionaries;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This class implements the directed acyclic graph of all the shortest paths 
+ * between two states. A state belongs to the DAG if it lies on at least one 
+ * shortest path, and an arc {@code (u, v)} belongs to the DAG if {@code v} is
+ * a neighbor of {@code u} one layer further from the source. The DAG is 
+ * stored in compressed sparse row form over local node indices; the source 
+ * state has index 0.
+ * <p>
+ * Iterating over the DAG walks it depth-first and yields one 
+ * {@link StateNodePath} at a time, so the memory used by the iteration is 
+ * bounded by the DAG size and the path length.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class ShortestPathDag implements Iterable<StateNodePath> {
+    
+    /**
+     * Marks the states not yet reached.
+     */
+    private static final int UNVISITED = -1;
+    
+    /**
+     * The registry of the state nodes.
+     */
+    private final StateNodeRegistry registry;
+    
+    /**
+     * Maps the local node indices to the state codes.
+     */
+    private final int[] codes;
+    
+    /**
+     * {@code successors[offsets[i]]} through 
+     * {@code successors[offsets[i + 1] - 1]} are the DAG children of the node
+     * with local index {@code i}.
+     */
+    private final int[] offsets;
+    
+    /**
+     * The local indices of the DAG children.
+     */
+    private final int[] successors;
+    
+    /**
+     * The number of nodes on each shortest path, or zero if the target is not
+     * reachable.
+     */
+    private final int pathLength;
+    
+    private ShortestPathDag(StateNodeRegistry registry,
+                            int[] codes,
+                            int[] offsets,
+                            int[] successors,
+                            int pathLength) {
+        this.registry = registry;
+        this.codes = codes;
+        this.offsets = offsets;
+        this.successors = successors;
+        this.pathLength = pathLength;
+    }
+    
+    static ShortestPathDag build(StateNode source, StateNode target) {
+        StateNodeRegistry registry = StateNodeRegistry.get(source);
+        StateCodec codec = registry.getCodec();
+        int sourceCode = codec.encode(source);
+        int targetCode = codec.encode(target);
+        int[] distances = new int[codec.getNumberOfStates()];
+        int[] queue = new int[codec.getNumberOfStates()];
+        int[] buffer = new int[codec.getMaximumNumberOfSuccessors()];
+        int head = 0;
+        int tail = 0;
+        
+        Arrays.fill(distances, UNVISITED);
+        distances[sourceCode] = 0;
+        queue[tail++] = sourceCode;
+        
+        while (head < tail) {
+            int current = queue[head++];
+            
+            if (current == targetCode) {
+                break;
+            }
+            
+            int numberOfSuccessors = codec.expand(current, buffer);
+            
+            for (int i = 0; i < numberOfSuccessors; i++) {
+                int child = buffer[i];
+                
+                if (distances[child] == UNVISITED) {
+                    distances[child] = distances[current] + 1;
+                    queue[tail++] = child;
+                }
+            }
+        }
+        
+        if (distances[targetCode] == UNVISITED) {
+            return new ShortestPathDag(registry, 
+                                       new int[0], 
+                                       new int[1], 
+                                       new int[0], 
+                                       0);
+        }
+        
+        // Walk back from the target. Since every boat trip can be undone, the
+        // predecessors of a state are among its neighbors. 'localIndices' 
+        // doubles as the "on DAG" mark.
+        int[] localIndices = new int[codec.getNumberOfStates()];
+        Arrays.fill(localIndices, UNVISITED);
+        head = 0;
+        tail = 0;
+        queue[tail++] = targetCode;
+        localIndices[targetCode] = 0;
+        
+        while (head < tail) {
+            int current = queue[head++];
+            int numberOfSuccessors = codec.expand(current, buffer);
+            
+            for (int i = 0; i < numberOfSuccessors; i++) {
+                int parent = buffer[i];
+                
+                if (distances[parent] != UNVISITED &&
+                        distances[parent] == distances[current] - 1 &&
+                        localIndices[parent] == UNVISITED) {
+                    localIndices[parent] = 0;
+                    queue[tail++] = parent;
+                }
+            }
+        }
+        
+        // 'queue[0 .. tail)' lists the DAG nodes by decreasing distance. 
+        // Number them by increasing distance, so that the source gets 0.
+        int numberOfNodes = tail;
+        int[] codes = new int[numberOfNodes];
+        
+        for (int i = 0; i < numberOfNodes; i++) {
+            codes[i] = queue[numberOfNodes - 1 - i];
+            localIndices[codes[i]] = i;
+        }
+        
+        int[] offsets = new int[numberOfNodes + 1];
+        int[] successors = new int[Math.max(numberOfNodes, 1)];
+        int numberOfArcs = 0;
+        
+        for (int i = 0; i < numberOfNodes; i++) {
+            offsets[i] = numberOfArcs;
+            
+            if (codes[i] == targetCode) {
+                continue;
+            }
+            
+            int numberOfSuccessors = codec.expand(codes[i], buffer);
+            
+            for (int j = 0; j < numberOfSuccessors; j++) {
+                int child = buffer[j];
+                
+                if (localIndices[child] != UNVISITED &&
+                        distances[child] == distances[codes[i]] + 1) {
+                    if (numberOfArcs == successors.length) {
+                        successors = Arrays.copyOf(successors, 
+                                                   2 * numberOfArcs);
+                    }
+                    
+                    successors[numberOfArcs++] = localIndices[child];
+                }
+            }
+        }
+        
+        offsets[numberOfNodes] = numberOfArcs;
+        return new ShortestPathDag(registry,
+                                   codes,
+                                   offsets,
+                                   Arrays.copyOf(successors, numberOfArcs),
+                                   distances[targetCode] + 1);
+    }
+    
+    /**
+     * Returns the number of states on each shortest path.
+     * 
+     * @return the path length in states, or zero if there is no path.
+     */
+    int getPathLength() {
+        return pathLength;
+    }
+    
+    int getNumberOfNodes() {
+        return codes.length;
+    }
+    
+    int getNumberOfArcs() {
+        return successors.length;
+    }
+    
+    StateNode getStateNode(int node) {
+        return registry.getStateNode(codes[node]);
+    }
+    
+    /**
+     * Returns the index of the first arc leaving the given node. Passing 
+     * {@code getNumberOfNodes()} returns the total number of arcs.
+     * 
+     * @param node the local node index.
+     * @return the first arc index.
+     */
+    int getOffset(int node) {
+        return offsets[node];
+    }
+    
+    /**
+     * Returns the local index of the head of the given arc. The heads lie one
+     * layer further from the source, so they always have larger local indices
+     * than the tails.
+     * 
+     * @param arc the arc index.
+     * @return the local node index of the arc head.
+     */
+    int getSuccessor(int arc) {
+        return successors[arc];
+    }
+    
+    @Override
+    public Iterator<StateNodePath> iterator() {
+        return new ShortestPathIterator();
+    }
+    
+    @Override
+    public Spliterator<StateNodePath> spliterator() {
+        return Spliterators.spliteratorUnknownSize(
+                iterator(), 
+                Spliterator.ORDERED | Spliterator.DISTINCT | 
+                Spliterator.NONNULL);
+    }
+    
+    Stream<StateNodePath> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+    
+    /**
+     * This class implements the depth-first enumeration of the DAG paths. As 
+     * every DAG node lies on a shortest path, each descent ends at the target
+     * and no backtracking is wasted.
+     */
+    private final class ShortestPathIterator 
+            implements Iterator<StateNodePath> {
+        
+        /**
+         * The local indices of the current path.
+         */
+        private final int[] path = new int[pathLength];
+        
+        /**
+         * {@code cursors[d]} is the next arc to try at depth {@code d}.
+         */
+        private final int[] cursors = new int[pathLength];
+        
+        /**
+         * {@code prefixes[d]} is the current path up to depth {@code d}. The 
+         * paths yielded share these prefixes.
+         */
+        private final StateNodePath[] prefixes = new StateNodePath[pathLength];
+        
+        /**
+         * The depth of the last node on the current path, or -1 if the 
+         * enumeration is over.
+         */
+        private int depth;
+        
+        ShortestPathIterator() {
+            if (pathLength == 0) {
+                depth = -1;
+                return;
+            }
+            
+            path[0] = 0;
+            cursors[0] = offsets[0];
+            prefixes[0] = new StateNodePath(registry.getStateNode(codes[0]));
+            descend();
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return depth >= 0;
+        }
+        
+        @Override
+        public StateNodePath next() {
+            if (depth < 0) {
+                throw new NoSuchElementException(
+                        "No more shortest paths.");
+            }
+            
+            StateNodePath stateNodePath = prefixes[pathLength - 1];
+            
+            while (depth >= 0 && cursors[depth] == offsets[path[depth] + 1]) {
+                depth--;
+            }
+            
+            if (depth >= 0) {
+                descend();
+            }
+            
+            return stateNodePath;
+        }
+        
+        private void descend() {
+            while (depth < pathLength - 1) {
+                int child = successors[cursors[depth]++];
+                depth++;
+                path[depth] = child;
+                cursors[depth] = offsets[child];
+                prefixes[depth] = prefixes[depth - 1].append(
+                        registry.getStateNode(codes[child]));
+            }
+        }
+    }
+}
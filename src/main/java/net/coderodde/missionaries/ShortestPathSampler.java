@@ -0,0 +1,289 @@
+package net.coderodde.missionaries;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * This class draws uniformly random shortest paths from a
+ * {@link ShortestPathDag} without enumerating them. Every DAG node stores the
+ * number of shortest paths from it to the target, and every arc the running
+ * total of these numbers over the arcs leaving the same node before it. A
+ * sample starts at the source, and at each node picks an arc with probability
+ * proportional to the number of paths through its head, by drawing a number
+ * below the node's path count and binary searching the running totals. Each
+ * path is thus drawn with probability {@code 1 / N}, where {@code N} is the
+ * number of shortest paths, in time proportional to the path length.
+ * <p>
+ * The path counts are kept in {@code long}s and moved to {@link BigInteger}s
+ * once they overflow. A sampler is immutable and safe to share between
+ * threads, while each thread should use its own random generator.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class ShortestPathSampler {
+
+    /**
+     * The number of samples drawn from the same generator in a batch. The
+     * generators of the chunks are split off in order before any sampling
+     * starts, so a batch depends only on the seed, not on the scheduling.
+     */
+    private static final int CHUNK_SIZE = 256;
+    
+    /**
+     * The DAG to sample from.
+     */
+    private final ShortestPathDag dag;
+    
+    /**
+     * The number of paths from each node to the target, or {@code null} if
+     * they overflowed.
+     */
+    private final long[] counts;
+    
+    /**
+     * The running totals of the arc head counts, or {@code null} if they
+     * overflowed.
+     */
+    private final long[] cumulativeCounts;
+    
+    /**
+     * The exact path counts if the {@code long} ones overflowed.
+     */
+    private final BigInteger[] bigCounts;
+    
+    /**
+     * The exact running totals if the {@code long} ones overflowed.
+     */
+    private final BigInteger[] bigCumulativeCounts;
+    
+    ShortestPathSampler(ShortestPathDag dag) {
+        this.dag = dag;
+        int numberOfNodes = dag.getNumberOfNodes();
+        long[] counts = new long[numberOfNodes];
+        long[] cumulativeCounts = new long[dag.getNumberOfArcs()];
+        
+        try {
+            // The arc heads have larger indices than the tails, so a reverse
+            // sweep visits the children before the parents.
+            for (int node = numberOfNodes - 1; node >= 0; node--) {
+                if (dag.getOffset(node) == dag.getOffset(node + 1)) {
+                    // Only the target has no children.
+                    counts[node] = 1L;
+                    continue;
+                }
+                
+                long total = 0L;
+                
+                for (int arc = dag.getOffset(node);
+                        arc < dag.getOffset(node + 1);
+                        arc++) {
+                    total = Math.addExact(total,
+                                          counts[dag.getSuccessor(arc)]);
+                    cumulativeCounts[arc] = total;
+                }
+                
+                counts[node] = total;
+            }
+        } catch (ArithmeticException ex) {
+            counts = null;
+            cumulativeCounts = null;
+        }
+        
+        this.counts = counts;
+        this.cumulativeCounts = cumulativeCounts;
+        
+        if (counts != null) {
+            this.bigCounts = null;
+            this.bigCumulativeCounts = null;
+            return;
+        }
+        
+        this.bigCounts = new BigInteger[numberOfNodes];
+        this.bigCumulativeCounts = new BigInteger[dag.getNumberOfArcs()];
+        
+        for (int node = numberOfNodes - 1; node >= 0; node--) {
+            if (dag.getOffset(node) == dag.getOffset(node + 1)) {
+                bigCounts[node] = BigInteger.ONE;
+                continue;
+            }
+            
+            BigInteger total = BigInteger.ZERO;
+            
+            for (int arc = dag.getOffset(node);
+                    arc < dag.getOffset(node + 1);
+                    arc++) {
+                total = total.add(bigCounts[dag.getSuccessor(arc)]);
+                bigCumulativeCounts[arc] = total;
+            }
+            
+            bigCounts[node] = total;
+        }
+    }
+    
+    static ShortestPathSampler build(StateNode source, StateNode target) {
+        return new ShortestPathSampler(ShortestPathDag.build(source, target));
+    }
+    
+    /**
+     * Returns the number of shortest paths the samples are drawn from.
+     *
+     * @return the number of shortest paths, or zero if there is none.
+     */
+    BigInteger getNumberOfPaths() {
+        if (dag.getPathLength() == 0) {
+            return BigInteger.ZERO;
+        }
+        
+        return counts != null ? BigInteger.valueOf(counts[0]) : bigCounts[0];
+    }
+    
+    /**
+     * Draws a uniformly random shortest path.
+     *
+     * @param random the random generator.
+     * @return the sampled path.
+     * @throws IllegalStateException if the target is not reachable.
+     */
+    StateNodePath sample(SplittableRandom random) {
+        if (dag.getPathLength() == 0) {
+            throw new IllegalStateException();
+        }
+        
+        int node = 0;
+        StateNodePath path = new StateNodePath(dag.getStateNode(node));
+        
+        if (counts != null) {
+            long rank = random.nextLong(counts[0]);
+            
+            while (dag.getOffset(node) < dag.getOffset(node + 1)) {
+                int arc = findArc(node, rank);
+                rank -= arc == dag.getOffset(node) ?
+                        0L : cumulativeCounts[arc - 1];
+                node = dag.getSuccessor(arc);
+                path = path.append(dag.getStateNode(node));
+            }
+        } else {
+            BigInteger rank = nextBigInteger(random, bigCounts[0]);
+            
+            while (dag.getOffset(node) < dag.getOffset(node + 1)) {
+                int arc = findArc(node, rank);
+                
+                if (arc > dag.getOffset(node)) {
+                    rank = rank.subtract(bigCumulativeCounts[arc - 1]);
+                }
+                
+                node = dag.getSuccessor(arc);
+                path = path.append(dag.getStateNode(node));
+            }
+        }
+        
+        return path;
+    }
+    
+    /**
+     * Draws a batch of independent, uniformly random shortest paths in
+     * parallel. The batch is determined by the state of {@code random}, which
+     * is advanced by splitting.
+     *
+     * @param numberOfSamples the number of paths to draw.
+     * @param random          the random generator to split.
+     * @return the list of sampled paths.
+     */
+    List<StateNodePath> sample(int numberOfSamples, SplittableRandom random) {
+        if (numberOfSamples < 0) {
+            throw new IllegalArgumentException(
+                    "The number of samples is too small. Must be at least 0.");
+        }
+        
+        int numberOfChunks = (numberOfSamples + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        SplittableRandom[] generators = new SplittableRandom[numberOfChunks];
+        
+        for (int i = 0; i < numberOfChunks; i++) {
+            generators[i] = random.split();
+        }
+        
+        StateNodePath[] samples = new StateNodePath[numberOfSamples];
+        
+        IntStream.range(0, numberOfChunks).parallel().forEach(chunk -> {
+            SplittableRandom generator = generators[chunk];
+            int end = Math.min((chunk + 1) * CHUNK_SIZE, numberOfSamples);
+            
+            for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+                samples[i] = sample(generator);
+            }
+        });
+        
+        return Arrays.asList(samples);
+    }
+    
+    /**
+     * Finds the first arc leaving {@code node} whose running total exceeds
+     * {@code rank}.
+     */
+    private int findArc(int node, long rank) {
+        int low = dag.getOffset(node);
+        int high = dag.getOffset(node + 1) - 1;
+        
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            
+            if (cumulativeCounts[middle] > rank) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        
+        return low;
+    }
+    
+    private int findArc(int node, BigInteger rank) {
+        int low = dag.getOffset(node);
+        int high = dag.getOffset(node + 1) - 1;
+        
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            
+            if (bigCumulativeCounts[middle].compareTo(rank) > 0) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        
+        return low;
+    }
+    
+    /**
+     * Draws a uniformly random number from {@code [0, bound)} by rejection
+     * sampling over {@code bound.bitLength()} random bits.
+     */
+    private static BigInteger nextBigInteger(SplittableRandom random,
+                                             BigInteger bound) {
+        int bitLength = bound.bitLength();
+        byte[] bytes = new byte[(bitLength + 7) / 8];
+        int excessBits = 8 * bytes.length - bitLength;
+        
+        while (true) {
+            for (int i = 0; i < bytes.length; i += 8) {
+                long word = random.nextLong();
+                
+                for (int j = i; j < Math.min(i + 8, bytes.length); j++) {
+                    bytes[j] = (byte) word;
+                    word >>>= 8;
+                }
+            }
+            
+            bytes[0] &= (byte) (0xFF >>> excessBits);
+            BigInteger candidate = new BigInteger(1, bytes);
+            
+            if (candidate.compareTo(bound) < 0) {
+                return candidate;
+            }
+        }
+    }
+}
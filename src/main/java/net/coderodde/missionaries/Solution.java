@@ -0,0 +1,110 @@
+package net.coderodde.missionaries;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class holds the solution summary of a game: the optimal number of boat
+ * trips, the number of optimal solutions and one optimal path encoded as 
+ * {@link StateCodec} codes.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class Solution {
+    
+    /**
+     * The game parameters of the solved game.
+     */
+    private final GameParameters gameParameters;
+    
+    /**
+     * The number of boat trips in an optimal solution, or -1 if there is no
+     * solution.
+     */
+    private final int optimalLength;
+    
+    /**
+     * The number of distinct optimal solutions.
+     */
+    private final BigInteger numberOfOptimalSolutions;
+    
+    /**
+     * The state codes of an optimal path. Empty if there is no solution.
+     */
+    private final int[] pathCodes;
+    
+    Solution(GameParameters gameParameters,
+             int optimalLength,
+             BigInteger numberOfOptimalSolutions,
+             int[] pathCodes) {
+        this.gameParameters = gameParameters;
+        this.optimalLength = optimalLength;
+        this.numberOfOptimalSolutions = numberOfOptimalSolutions;
+        this.pathCodes = pathCodes;
+    }
+    
+    static Solution solve(GameParameters gameParameters) {
+        StateNode source = StateNode.getSourceState(gameParameters);
+        StateNode target = StateNode.getTargetState(gameParameters);
+        List<StateNode> path;
+        
+        try {
+            path = PackedBFS.search(source, target);
+        } catch (IllegalStateException ex) {
+            return new Solution(gameParameters, -1, BigInteger.ZERO, new int[0]);
+        }
+        
+        StateCodec codec = StateNodeRegistry.get(gameParameters).getCodec();
+        int[] pathCodes = new int[path.size()];
+        
+        for (int i = 0; i < pathCodes.length; i++) {
+            pathCodes[i] = codec.encode(path.get(i));
+        }
+        
+        return new Solution(gameParameters,
+                            path.size() - 1,
+                            ShortestPathCounter.count(source, target),
+                            pathCodes);
+    }
+    
+    GameParameters getGameParameters() {
+        return gameParameters;
+    }
+    
+    boolean isSolvable() {
+        return optimalLength >= 0;
+    }
+    
+    int getOptimalLength() {
+        return optimalLength;
+    }
+    
+    BigInteger getNumberOfOptimalSolutions() {
+        return numberOfOptimalSolutions;
+    }
+    
+    int[] getPathCodes() {
+        return pathCodes.clone();
+    }
+    
+    int getPathCode(int index) {
+        return pathCodes[index];
+    }
+    
+    int getNumberOfPathCodes() {
+        return pathCodes.length;
+    }
+    
+    List<StateNode> getPath() {
+        StateNodeRegistry registry = StateNodeRegistry.get(gameParameters);
+        List<StateNode> path = new ArrayList<>(pathCodes.length);
+        
+        for (int pathCode : pathCodes) {
+            path.add(registry.getStateNode(pathCode));
+        }
+        
+        return path;
+    }
+}
@@ -0,0 +1,85 @@
+package net.coderodde.missionaries;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class caches the {@link Solution}s of games. The most recently used 
+ * solutions are kept in memory up to a given count; the rest are looked up in
+ * a {@link SolutionStore} file shared between processes, and only the games 
+ * found in neither are solved.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class SolutionCache implements Closeable {
+    
+    /**
+     * The in-memory solutions in access order.
+     */
+    private final Map<GameParameters, Solution> memoryCache;
+    
+    /**
+     * The on-disk solutions.
+     */
+    private final SolutionStore store;
+    
+    SolutionCache(int memoryCapacity, Path storeFile) throws IOException {
+        if (memoryCapacity < 1) {
+            throw new IllegalArgumentException(
+                    "Memory capacity (" + memoryCapacity + 
+                    ") is too small. Must be at least 1.");
+        }
+        
+        this.memoryCache = 
+                new LinkedHashMap<GameParameters, Solution>(16, 0.75f, true) {
+            
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<GameParameters, Solution> eldest) {
+                return size() > memoryCapacity;
+            }
+        };
+        
+        this.store = new SolutionStore(storeFile);
+    }
+    
+    /**
+     * Returns the solution of the given game, solving it only if it is neither
+     * in memory nor in the store file.
+     * 
+     * @param gameParameters the game parameters.
+     * @return the solution.
+     * @throws IOException if accessing the store file fails.
+     */
+    Solution get(GameParameters gameParameters) throws IOException {
+        synchronized (memoryCache) {
+            Solution solution = memoryCache.get(gameParameters);
+            
+            if (solution != null) {
+                return solution;
+            }
+        }
+        
+        Solution solution = store.get(gameParameters);
+        
+        if (solution == null) {
+            solution = Solution.solve(gameParameters);
+            store.put(solution);
+        }
+        
+        synchronized (memoryCache) {
+            memoryCache.put(gameParameters, solution);
+        }
+        
+        return solution;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        store.close();
+    }
+}
@@ -0,0 +1,301 @@
+package net.coderodde.missionaries;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class implements an append-only binary file of {@link Solution}s. The
+ * file starts with a magic number and a format version, followed by records 
+ * of the form
+ * <pre>
+ *   int missionaries, int cannibals, int boatCapacity, int optimalLength,
+ *   int countLength, byte[countLength] count, 
+ *   int pathLength, int[pathLength] pathCodes
+ * </pre>
+ * in big-endian order, where {@code count} is the two's-complement form of 
+ * the number of optimal solutions. The records are read through a 
+ * memory-mapped buffer. As other processes may append to the same file, a 
+ * lookup miss rescans the part of the file not indexed yet. 
+ * <p>
+ * The processes coordinate through {@link FileChannel#lock()}: a writer holds
+ * an exclusive lock from reading the file size until its record is written,
+ * and a reader holds a shared lock while scanning. Thus, an incomplete 
+ * trailing record seen under the exclusive lock is the remains of a crashed
+ * writer, and it is truncated away on opening the file and before appending.
+ * File locks are held on behalf of the whole process, so a process should 
+ * open at most one store per file.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class SolutionStore implements Closeable {
+    
+    /**
+     * The first four bytes of a solution store file: "MCS1".
+     */
+    static final int MAGIC = 0x4D435331;
+    
+    /**
+     * The current file format version.
+     */
+    static final int VERSION = 1;
+    
+    /**
+     * The length of the file header in bytes.
+     */
+    private static final int HEADER_LENGTH = 8;
+    
+    /**
+     * The channel of the store file.
+     */
+    private final FileChannel channel;
+    
+    /**
+     * Maps each stored game to the file offset of its record.
+     */
+    private final Map<GameParameters, Long> index = new HashMap<>();
+    
+    /**
+     * The file offset right after the last indexed record.
+     */
+    private long indexedLength;
+    
+    /**
+     * The mapping of the file region {@code [0, mappedLength)}.
+     */
+    private MappedByteBuffer mappedBuffer;
+    
+    SolutionStore(Path file) throws IOException {
+        this.channel = FileChannel.open(file,
+                                        StandardOpenOption.CREATE,
+                                        StandardOpenOption.READ,
+                                        StandardOpenOption.WRITE);
+        
+        // On failure, closing the channel releases the lock as well.
+        try {
+            FileLock lock = channel.lock();
+            
+            if (channel.size() == 0L) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+                header.putInt(MAGIC).putInt(VERSION).flip();
+                
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+            }
+            
+            remap();
+            
+            if (mappedBuffer.capacity() < HEADER_LENGTH ||
+                    mappedBuffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a solution store file: " + file);
+            }
+            
+            if (mappedBuffer.getInt(4) != VERSION) {
+                throw new IOException(
+                        "Unsupported solution store version " + 
+                        mappedBuffer.getInt(4) + " in " + file);
+            }
+            
+            indexedLength = HEADER_LENGTH;
+            scan();
+            truncateTornTail();
+            lock.release();
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+    
+    /**
+     * Looks up the solution of the given game.
+     * 
+     * @param gameParameters the game parameters.
+     * @return the stored solution, or {@code null} if there is none.
+     * @throws IOException if reading the file fails.
+     */
+    synchronized Solution get(GameParameters gameParameters) 
+            throws IOException {
+        Long offset = index.get(gameParameters);
+        
+        if (offset == null && channel.size() > indexedLength) {
+            // The shared lock keeps a writer from truncating a torn tail 
+            // while it is being scanned.
+            FileLock lock = channel.lock(0L, Long.MAX_VALUE, true);
+            
+            try {
+                remap();
+                scan();
+            } finally {
+                lock.release();
+            }
+            
+            offset = index.get(gameParameters);
+        }
+        
+        if (offset == null) {
+            return null;
+        }
+        
+        return readRecord(offset);
+    }
+    
+    /**
+     * Appends a solution to the file unless its game is already stored.
+     * 
+     * @param solution the solution to append.
+     * @throws IOException if writing the file fails.
+     */
+    synchronized void put(Solution solution) throws IOException {
+        if (index.containsKey(solution.getGameParameters())) {
+            return;
+        }
+        
+        GameParameters gameParameters = solution.getGameParameters();
+        byte[] count = solution.getNumberOfOptimalSolutions().toByteArray();
+        int numberOfPathCodes = solution.getNumberOfPathCodes();
+        ByteBuffer record = 
+                ByteBuffer.allocate(24 + count.length + 4 * numberOfPathCodes);
+        
+        record.putInt(gameParameters.getTotalNumberOfMissionaries())
+              .putInt(gameParameters.getTotalNumberOfCannibals())
+              .putInt(gameParameters.getBoatCapacity())
+              .putInt(solution.getOptimalLength())
+              .putInt(count.length)
+              .put(count)
+              .putInt(numberOfPathCodes);
+        
+        for (int i = 0; i < numberOfPathCodes; i++) {
+            record.putInt(solution.getPathCode(i));
+        }
+        
+        record.flip();
+        
+        FileLock lock = channel.lock();
+        
+        try {
+            // Pick up the records appended by other processes first, so that
+            // the new record goes right after the last complete one.
+            if (channel.size() > indexedLength) {
+                remap();
+                scan();
+                truncateTornTail();
+                
+                if (index.containsKey(gameParameters)) {
+                    return;
+                }
+            }
+            
+            long offset = indexedLength;
+            
+            while (record.hasRemaining()) {
+                channel.write(record, offset + record.position());
+            }
+            
+            index.put(gameParameters, offset);
+            indexedLength = offset + record.limit();
+        } finally {
+            lock.release();
+        }
+    }
+    
+    synchronized int size() {
+        return index.size();
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+    
+    private void remap() throws IOException {
+        mappedBuffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                                   0L, 
+                                   channel.size());
+    }
+    
+    /**
+     * Indexes the complete records between {@code indexedLength} and the end
+     * of the mapped region.
+     */
+    private void scan() {
+        long offset = indexedLength;
+        long limit = mappedBuffer.capacity();
+        
+        while (offset + 24 <= limit) {
+            int position = (int) offset;
+            int countLength = mappedBuffer.getInt(position + 16);
+            
+            if (countLength < 0 || 
+                    offset + 24 + countLength > limit) {
+                break;
+            }
+            
+            int numberOfPathCodes = 
+                    mappedBuffer.getInt(position + 20 + countLength);
+            long recordLength = 24L + countLength + 4L * numberOfPathCodes;
+            
+            if (numberOfPathCodes < 0 || offset + recordLength > limit) {
+                break;
+            }
+            
+            GameParameters gameParameters = 
+                    new GameParameters(mappedBuffer.getInt(position),
+                                       mappedBuffer.getInt(position + 4),
+                                       mappedBuffer.getInt(position + 8));
+            
+            index.putIfAbsent(gameParameters, offset);
+            offset += recordLength;
+        }
+        
+        indexedLength = offset;
+    }
+    
+    /**
+     * Cuts off the incomplete record past {@code indexedLength}, if any. Must
+     * be called under the exclusive file lock right after {@link #scan()}, 
+     * when no live writer can be in the middle of a record.
+     */
+    private void truncateTornTail() throws IOException {
+        if (channel.size() > indexedLength) {
+            channel.truncate(indexedLength);
+            channel.force(false);
+            remap();
+        }
+    }
+    
+    private Solution readRecord(long offset) throws IOException {
+        if (offset >= mappedBuffer.capacity()) {
+            remap();
+        }
+        
+        ByteBuffer buffer = mappedBuffer.duplicate();
+        buffer.position((int) offset);
+        
+        GameParameters gameParameters = new GameParameters(buffer.getInt(),
+                                                           buffer.getInt(),
+                                                           buffer.getInt());
+        int optimalLength = buffer.getInt();
+        byte[] count = new byte[buffer.getInt()];
+        buffer.get(count);
+        int[] pathCodes = new int[buffer.getInt()];
+        
+        for (int i = 0; i < pathCodes.length; i++) {
+            pathCodes[i] = buffer.getInt();
+        }
+        
+        return new Solution(gameParameters,
+                            optimalLength,
+                            new BigInteger(count),
+                            pathCodes);
+    }
+}
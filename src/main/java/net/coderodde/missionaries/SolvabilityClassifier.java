@@ -0,0 +1,352 @@
+package net.coderodde.missionaries;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * This class decides whether a game is solvable, and in how many crossings,
+ * without materializing any states. For each boat location and each number of
+ * missionaries {@code m} on the source bank, a layer of the breadth-first
+ * search is a bitset over the number of cannibals {@code c} on the source
+ * bank, stored in {@code long} words. A boat trip carrying {@code dm}
+ * missionaries and {@code dc} cannibals moves row {@code m} to row
+ * {@code m -+ dm} shifted by {@code dc} bits, so all the loads with the same
+ * {@code dm} are applied to a whole row at once by a shift followed by a
+ * logarithmic number of shift/OR steps. The next layer is then masked with
+ * the safe configurations and the complement of the states already reached.
+ * <p>
+ * A classifier reuses its buffers between calls and is not thread-safe.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class SolvabilityClassifier {
+
+    /**
+     * Returned for the games that have no solution.
+     */
+    static final int UNSOLVABLE = -1;
+    
+    /**
+     * Bit {@code c} of row {@code m} is set if the configuration {@code (m, c)}
+     * is safe.
+     */
+    private long[] safe = new long[0];
+    
+    /**
+     * The states reached with the boat at the source bank.
+     */
+    private long[] reachedAtSource = new long[0];
+    
+    /**
+     * The states reached with the boat at the target bank.
+     */
+    private long[] reachedAtTarget = new long[0];
+    
+    /**
+     * The current layer.
+     */
+    private long[] frontier = new long[0];
+    
+    /**
+     * The layer being generated.
+     */
+    private long[] nextFrontier = new long[0];
+    
+    /**
+     * A single row being shifted.
+     */
+    private long[] row = new long[0];
+    
+    /**
+     * Computes the number of crossings in an optimal solution of the given
+     * game.
+     *
+     * @param gameParameters the game parameters.
+     * @return the optimal number of crossings, or {@link #UNSOLVABLE}.
+     */
+    int classify(GameParameters gameParameters) {
+        int totalNumberOfMissionaries =
+                gameParameters.getTotalNumberOfMissionaries();
+        int totalNumberOfCannibals =
+                gameParameters.getTotalNumberOfCannibals();
+        int boatCapacity = gameParameters.getBoatCapacity();
+        int words = (totalNumberOfCannibals + 64) >>> 6;
+        int rows = totalNumberOfMissionaries + 1;
+        
+        allocate(rows * words, words);
+        computeSafeRows(totalNumberOfMissionaries,
+                        totalNumberOfCannibals,
+                        words);
+        
+        int length = rows * words;
+        Arrays.fill(reachedAtSource, 0, length, 0L);
+        Arrays.fill(reachedAtTarget, 0, length, 0L);
+        Arrays.fill(frontier, 0, length, 0L);
+        Arrays.fill(nextFrontier, 0, length, 0L);
+        
+        setBit(frontier, totalNumberOfMissionaries * words,
+               totalNumberOfCannibals);
+        setBit(reachedAtSource, totalNumberOfMissionaries * words,
+               totalNumberOfCannibals);
+        
+        int maximumLoadMissionaries =
+                Math.min(boatCapacity, totalNumberOfMissionaries);
+        // The frontier occupies only the rows [lowRow, highRow].
+        int lowRow = totalNumberOfMissionaries;
+        int highRow = totalNumberOfMissionaries;
+        boolean boatAtSource = true;
+        
+        for (int crossings = 1; ; crossings++) {
+            int nextLowRow = boatAtSource ?
+                    Math.max(lowRow - maximumLoadMissionaries, 0) : lowRow;
+            int nextHighRow = boatAtSource ?
+                    highRow :
+                    Math.min(highRow + maximumLoadMissionaries, rows - 1);
+            int from = nextLowRow * words;
+            int to = (nextHighRow + 1) * words;
+            
+            Arrays.fill(nextFrontier, from, to, 0L);
+            
+            for (int m = lowRow; m <= highRow; m++) {
+                int offset = m * words;
+                
+                if (isEmpty(frontier, offset, words)) {
+                    continue;
+                }
+                
+                for (int dm = 0; dm <= maximumLoadMissionaries; dm++) {
+                    int nextM = boatAtSource ? m - dm : m + dm;
+                    
+                    if (nextM < 0 || nextM >= rows) {
+                        break;
+                    }
+                    
+                    int minimumLoadCannibals = dm == 0 ? 1 : 0;
+                    int maximumLoadCannibals =
+                            Math.min(boatCapacity - dm,
+                                     totalNumberOfCannibals);
+                    
+                    if (minimumLoadCannibals > maximumLoadCannibals) {
+                        continue;
+                    }
+                    
+                    spread(offset,
+                           words,
+                           minimumLoadCannibals,
+                           maximumLoadCannibals,
+                           boatAtSource);
+                    
+                    int nextOffset = nextM * words;
+                    
+                    for (int i = 0; i < words; i++) {
+                        nextFrontier[nextOffset + i] |= row[i];
+                    }
+                }
+            }
+            
+            long[] reached = boatAtSource ? reachedAtTarget : reachedAtSource;
+            lowRow = rows;
+            highRow = -1;
+            
+            for (int i = from; i < to; i++) {
+                long word = nextFrontier[i] & safe[i] & ~reached[i];
+                nextFrontier[i] = word;
+                reached[i] |= word;
+                
+                if (word != 0L) {
+                    highRow = i / words;
+                    lowRow = Math.min(lowRow, highRow);
+                }
+            }
+            
+            if (highRow < 0) {
+                return UNSOLVABLE;
+            }
+            
+            if (boatAtSource && lowRow == 0 && (nextFrontier[0] & 1L) != 0L) {
+                return crossings;
+            }
+            
+            long[] swap = frontier;
+            frontier = nextFrontier;
+            nextFrontier = swap;
+            boatAtSource = !boatAtSource;
+        }
+    }
+    
+    /**
+     * Classifies every game with at most the given numbers of missionaries,
+     * cannibals and the given boat capacity. The rows are classified in
+     * parallel, one classifier per number of missionaries.
+     *
+     * @param maximumNumberOfMissionaries the maximum number of missionaries.
+     * @param maximumNumberOfCannibals    the maximum number of cannibals.
+     * @param maximumBoatCapacity         the maximum boat capacity.
+     * @return the array {@code grid} in which {@code grid[m][c][k]} is the
+     *         optimal number of crossings of the game {@code (m, c, k)}, or
+     *         {@link #UNSOLVABLE}.
+     */
+    static int[][][] classifyGrid(int maximumNumberOfMissionaries,
+                                  int maximumNumberOfCannibals,
+                                  int maximumBoatCapacity) {
+        if (maximumNumberOfMissionaries < 0) {
+            throw new IllegalArgumentException(
+                    "Negative maximum missionaries (" +
+                    maximumNumberOfMissionaries + ").");
+        }
+        
+        if (maximumNumberOfCannibals < 0) {
+            throw new IllegalArgumentException(
+                    "Negative maximum cannibals (" +
+                    maximumNumberOfCannibals + ").");
+        }
+        
+        if (maximumBoatCapacity < 0) {
+            throw new IllegalArgumentException(
+                    "Negative maximum boat capacity (" +
+                    maximumBoatCapacity + ").");
+        }
+        
+        int[][][] grid =
+                new int[maximumNumberOfMissionaries + 1]
+                       [maximumNumberOfCannibals + 1]
+                       [maximumBoatCapacity + 1];
+        
+        IntStream.rangeClosed(0, maximumNumberOfMissionaries)
+                 .parallel()
+                 .forEach(m -> {
+            SolvabilityClassifier classifier = new SolvabilityClassifier();
+            
+            for (int c = 0; c <= maximumNumberOfCannibals; c++) {
+                for (int k = 0; k <= maximumBoatCapacity; k++) {
+                    grid[m][c][k] =
+                            classifier.classify(new GameParameters(m, c, k));
+                }
+            }
+        });
+        
+        return grid;
+    }
+    
+    private void allocate(int length, int words) {
+        if (safe.length < length) {
+            int capacity = Math.max(length, 2 * safe.length);
+            safe = new long[capacity];
+            reachedAtSource = new long[capacity];
+            reachedAtTarget = new long[capacity];
+            frontier = new long[capacity];
+            nextFrontier = new long[capacity];
+        }
+        
+        if (row.length < words) {
+            row = new long[words];
+        }
+    }
+    
+    private void computeSafeRows(int totalNumberOfMissionaries,
+                                 int totalNumberOfCannibals,
+                                 int words) {
+        for (int m = 0; m <= totalNumberOfMissionaries; m++) {
+            int offset = m * words;
+            int missionariesOnTargetBank = totalNumberOfMissionaries - m;
+            // The missionaries on the source bank must not be outnumbered:
+            int high = m > 0 ? Math.min(m, totalNumberOfCannibals) :
+                               totalNumberOfCannibals;
+            // ...and neither the ones on the target bank.
+            int low = missionariesOnTargetBank > 0 ?
+                    Math.max(totalNumberOfCannibals - missionariesOnTargetBank,
+                             0) :
+                    0;
+            
+            Arrays.fill(safe, offset, offset + words, 0L);
+            
+            for (int c = low; c <= high; c++) {
+                setBit(safe, offset, c);
+            }
+        }
+    }
+    
+    /**
+     * Loads into {@code row} the union of the frontier row at
+     * {@code offset} shifted by {@code minimumShift},
+     * {@code minimumShift + 1}, ..., {@code maximumShift} bits: downwards when
+     * the boat leaves the source bank, and upwards otherwise.
+     */
+    private void spread(int offset,
+                        int words,
+                        int minimumShift,
+                        int maximumShift,
+                        boolean downwards) {
+        shift(frontier, offset, words, minimumShift, downwards);
+        
+        int width = maximumShift - minimumShift + 1;
+        
+        for (int covered = 1; covered < width; ) {
+            int step = Math.min(covered, width - covered);
+            shift(row, 0, words, step, downwards);
+            covered += step;
+        }
+    }
+    
+    /**
+     * Sets {@code row} to {@code row | (source >> shift)} or
+     * {@code row | (source << shift)} when {@code source} is {@code row}
+     * itself, and to the shifted source otherwise.
+     */
+    private void shift(long[] source,
+                       int offset,
+                       int words,
+                       int shift,
+                       boolean downwards) {
+        boolean accumulate = source == row;
+        int wordShift = shift >>> 6;
+        int bitShift = shift & 63;
+        
+        if (downwards) {
+            for (int i = 0; i < words; i++) {
+                int j = i + wordShift;
+                long word = 0L;
+                
+                if (j < words) {
+                    word = source[offset + j] >>> bitShift;
+                    
+                    if (bitShift != 0 && j + 1 < words) {
+                        word |= source[offset + j + 1] << (64 - bitShift);
+                    }
+                }
+                
+                row[i] = accumulate ? row[i] | word : word;
+            }
+        } else {
+            for (int i = words - 1; i >= 0; i--) {
+                int j = i - wordShift;
+                long word = 0L;
+                
+                if (j >= 0) {
+                    word = source[offset + j] << bitShift;
+                    
+                    if (bitShift != 0 && j > 0) {
+                        word |= source[offset + j - 1] >>> (64 - bitShift);
+                    }
+                }
+                
+                row[i] = accumulate ? row[i] | word : word;
+            }
+        }
+    }
+    
+    private static boolean isEmpty(long[] bits, int offset, int words) {
+        for (int i = 0; i < words; i++) {
+            if (bits[offset + i] != 0L) {
+                return false;
+            }
+        }
+        
+        return true;
+    }
+    
+    private static void setBit(long[] bits, int offset, int index) {
+        bits[offset + (index >>> 6)] |= 1L << index;
+    }
+}
@@ -0,0 +1,302 @@
+package net.coderodde.missionaries;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class solves games concurrently on a bounded thread pool. Each request
+ * asks for an optimal path from a start state to the target state of its game
+ * and is answered with a {@link CompletableFuture}. Identical requests in 
+ * flight share a single search. A request fails with a 
+ * {@link TimeoutException} if not solved within the configured time, and with
+ * a {@link RejectedExecutionException} if the work queue is full. Cancelling 
+ * a returned future interrupts the search as soon as no other caller waits 
+ * for it.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class SolverService implements AutoCloseable {
+    
+    /**
+     * Runs the searches.
+     */
+    private final ThreadPoolExecutor executor;
+    
+    /**
+     * Fires the request timeouts.
+     */
+    private final ScheduledExecutorService timeoutScheduler;
+    
+    /**
+     * The time limit of a single request in nanoseconds.
+     */
+    private final long timeoutNanos;
+    
+    /**
+     * Maps the start states of the requests in flight to the requests.
+     */
+    private final ConcurrentMap<StateNode, Request> requestsInFlight = 
+            new ConcurrentHashMap<>();
+    
+    /**
+     * Constructs a solver service.
+     * 
+     * @param numberOfThreads the number of search threads.
+     * @param queueCapacity   the maximum number of requests waiting for a 
+     *                        thread.
+     * @param timeout         the time limit of a single request.
+     * @param timeUnit        the unit of {@code timeout}.
+     */
+    SolverService(int numberOfThreads,
+                  int queueCapacity,
+                  long timeout,
+                  TimeUnit timeUnit) {
+        if (numberOfThreads < 1) {
+            throw new IllegalArgumentException(
+                    "Number of threads (" + numberOfThreads + 
+                    ") is too small. Must be at least 1.");
+        }
+        
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException(
+                    "Queue capacity (" + queueCapacity + 
+                    ") is too small. Must be at least 1.");
+        }
+        
+        if (timeout <= 0L) {
+            throw new IllegalArgumentException(
+                    "Non-positive timeout (" + timeout + ").");
+        }
+        
+        this.executor = 
+                new ThreadPoolExecutor(numberOfThreads,
+                                       numberOfThreads,
+                                       0L,
+                                       TimeUnit.MILLISECONDS,
+                                       new ArrayBlockingQueue<>(queueCapacity),
+                                       new DaemonThreadFactory("solver"));
+        
+        this.timeoutScheduler = 
+                Executors.newSingleThreadScheduledExecutor(
+                        new DaemonThreadFactory("solver-timeout"));
+        
+        this.timeoutNanos = timeUnit.toNanos(timeout);
+    }
+    
+    /**
+     * Requests an optimal solution of the given game.
+     * 
+     * @param gameParameters the game parameters.
+     * @return the future optimal path from the source to the target state.
+     */
+    CompletableFuture<List<StateNode>> solve(GameParameters gameParameters) {
+        return solve(StateNode.getSourceState(gameParameters));
+    }
+    
+    /**
+     * Requests an optimal path from the given state to the target state of 
+     * its game.
+     * 
+     * @param start the start state.
+     * @return the future optimal path.
+     */
+    CompletableFuture<List<StateNode>> solve(StateNode start) {
+        while (true) {
+            Request request = 
+                    requestsInFlight.computeIfAbsent(start, Request::new);
+            
+            request.start();
+            CompletableFuture<List<StateNode>> future = request.subscribe();
+            
+            if (future != null) {
+                return future;
+            }
+            
+            // The request was abandoned by all its callers just now.
+            requestsInFlight.remove(start, request);
+        }
+    }
+    
+    List<CompletableFuture<List<StateNode>>> 
+        solveAll(Collection<GameParameters> batch) {
+        List<CompletableFuture<List<StateNode>>> futures = 
+                new ArrayList<>(batch.size());
+        
+        for (GameParameters gameParameters : batch) {
+            futures.add(solve(gameParameters));
+        }
+        
+        return futures;
+    }
+    
+    List<CompletableFuture<List<StateNode>>> 
+        solveAllFrom(Collection<StateNode> batch) {
+        List<CompletableFuture<List<StateNode>>> futures = 
+                new ArrayList<>(batch.size());
+        
+        for (StateNode start : batch) {
+            futures.add(solve(start));
+        }
+        
+        return futures;
+    }
+    
+    /**
+     * Stops the service. The requests still in flight are cancelled.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        timeoutScheduler.shutdownNow();
+        
+        for (Request request : requestsInFlight.values()) {
+            request.result.cancel(false);
+        }
+    }
+    
+    /**
+     * This class represents a single search shared by all the callers asking
+     * for the same start state.
+     */
+    private final class Request {
+        
+        private final StateNode start;
+        private final CompletableFuture<List<StateNode>> result = 
+                new CompletableFuture<>();
+        
+        private Future<?> task;
+        private ScheduledFuture<?> timeoutTask;
+        private boolean started;
+        private boolean abandoned;
+        private int numberOfSubscribers;
+        
+        Request(StateNode start) {
+            this.start = start;
+        }
+        
+        synchronized void start() {
+            if (started) {
+                return;
+            }
+            
+            started = true;
+            
+            try {
+                task = executor.submit(this::run);
+                timeoutTask = timeoutScheduler.schedule(
+                        () -> result.completeExceptionally(
+                                new TimeoutException(
+                                        "The search did not finish in " + 
+                                        TimeUnit.NANOSECONDS.toMillis(
+                                                timeoutNanos) + 
+                                        " ms.")),
+                        timeoutNanos,
+                        TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException ex) {
+                result.completeExceptionally(ex);
+            }
+            
+            result.whenComplete((path, throwable) -> finish());
+        }
+        
+        /**
+         * Returns a new future completed along with this request, or 
+         * {@code null} if this request is already abandoned.
+         */
+        synchronized CompletableFuture<List<StateNode>> subscribe() {
+            if (abandoned) {
+                return null;
+            }
+            
+            numberOfSubscribers++;
+            CompletableFuture<List<StateNode>> future = 
+                    new CompletableFuture<>();
+            
+            result.whenComplete((path, throwable) -> {
+                if (throwable != null) {
+                    future.completeExceptionally(throwable);
+                } else {
+                    future.complete(path);
+                }
+            });
+            
+            future.whenComplete((path, throwable) -> {
+                if (future.isCancelled()) {
+                    unsubscribe();
+                }
+            });
+            
+            return future;
+        }
+        
+        private synchronized void unsubscribe() {
+            if (--numberOfSubscribers == 0 && !result.isDone()) {
+                abandoned = true;
+                result.cancel(false);
+            }
+        }
+        
+        private void run() {
+            try {
+                result.complete(
+                        AStar.search(
+                                start, 
+                                StateNode.getTargetState(
+                                        start.getGameParameters())));
+            } catch (Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+        }
+        
+        private synchronized void finish() {
+            requestsInFlight.remove(start, this);
+            
+            if (task != null) {
+                task.cancel(true);
+            }
+            
+            if (timeoutTask != null) {
+                timeoutTask.cancel(false);
+            }
+        }
+    }
+    
+    /**
+     * Creates named daemon threads.
+     */
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        
+        private final String namePrefix;
+        private final AtomicInteger threadNumber = new AtomicInteger();
+        
+        DaemonThreadFactory(String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+        
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = 
+                    new Thread(runnable, 
+                               namePrefix + "-" + 
+                               threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package net.coderodde.missionaries;
+
+/**
+ * This class packs game states into {@code int} codes. A state with 
+ * {@code m} missionaries and {@code c} cannibals on the source bank is encoded
+ * as {@code ((m * (C + 1) + c) << 1) | b}, where {@code C} is the total number
+ * of cannibals and {@code b} is 0 when the boat is at the source bank, and 1
+ * when it is at the target bank. All the codes of a game fall into the range
+ * {@code [0, getNumberOfStates())}, so they may be used as indices into dense
+ * arrays.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class StateCodec {
+    
+    /**
+     * The game parameters of the states being encoded.
+     */
+    private final GameParameters gameParameters;
+    
+    /**
+     * Equals the total number of cannibals plus one.
+     */
+    private final int cannibalRadix;
+    
+    /**
+     * The total number of codes, including the unsafe states.
+     */
+    private final int numberOfStates;
+    
+    /**
+     * The precompiled boat loads and safety bitmap used for expanding codes.
+     */
+    private final MoveTable moveTable;
+    
+    StateCodec(GameParameters gameParameters) {
+        this.gameParameters = gameParameters;
+        this.cannibalRadix = gameParameters.getTotalNumberOfCannibals() + 1;
+        this.numberOfStates = 
+                2 * (gameParameters.getTotalNumberOfMissionaries() + 1) 
+                  * cannibalRadix;
+        this.moveTable = new MoveTable(gameParameters);
+    }
+    
+    GameParameters getGameParameters() {
+        return gameParameters;
+    }
+    
+    int getNumberOfStates() {
+        return numberOfStates;
+    }
+    
+    int getMaximumNumberOfSuccessors() {
+        return moveTable.getNumberOfLoads();
+    }
+    
+    int encode(int numberOfMissionariesOnSourceBank,
+               int numberOfCannibalsOnSourceBank,
+               BoatLocation boatLocation) {
+        int code = numberOfMissionariesOnSourceBank * cannibalRadix + 
+                   numberOfCannibalsOnSourceBank;
+        
+        return (code << 1) | 
+               (boatLocation == BoatLocation.SOURCE_RIVER_BANK ? 0 : 1);
+    }
+    
+    int encode(StateNode stateNode) {
+        return encode(stateNode.getNumberOfMissionariesOnSourceBank(),
+                      stateNode.getNumberOfCannibalsOnSourceBank(),
+                      stateNode.getBoatLocation());
+    }
+    
+    int getNumberOfMissionariesOnSourceBank(int code) {
+        return (code >>> 1) / cannibalRadix;
+    }
+    
+    int getNumberOfCannibalsOnSourceBank(int code) {
+        return (code >>> 1) % cannibalRadix;
+    }
+    
+    BoatLocation getBoatLocation(int code) {
+        return (code & 1) == 0 ? BoatLocation.SOURCE_RIVER_BANK :
+                                 BoatLocation.TARGET_RIVER_BANK;
+    }
+    
+    /**
+     * Creates a new state node for a code. Unlike 
+     * {@link StateNodeRegistry#getStateNode(int)}, this keeps no per-state 
+     * table, so the returned node is equal to, but not the same as, the 
+     * canonical one.
+     * 
+     * @param code the code of the state.
+     * @return a new state node.
+     */
+    StateNode decode(int code) {
+        return new StateNode(getNumberOfMissionariesOnSourceBank(code),
+                             getNumberOfCannibalsOnSourceBank(code),
+                             gameParameters,
+                             getBoatLocation(code));
+    }
+    
+    /**
+     * Returns the code of the mirror image of a state: the state with the
+     * banks swapped, that is, with {@code M - m} missionaries and
+     * {@code C - c} cannibals on the source bank and the boat on the other
+     * bank. As the codes of the mirror images sum up to
+     * {@code 2 * (M * (C + 1) + C) + 1}, the mirror code is simply
+     * {@code getNumberOfStates() - 1 - code}.
+     *
+     * @param code the code of the state to mirror.
+     * @return the code of the mirror image.
+     */
+    int mirror(int code) {
+        return numberOfStates - 1 - code;
+    }
+    
+    /**
+     * Checks that neither of the banks has missionaries outnumbered by the 
+     * cannibals.
+     * 
+     * @param numberOfMissionariesOnSourceBank the number of missionaries on the
+     *                                         source bank.
+     * @param numberOfCannibalsOnSourceBank    the number of cannibals on the 
+     *                                         source bank.
+     * @return {@code true} if the configuration is safe.
+     */
+    boolean isSafe(int numberOfMissionariesOnSourceBank,
+                   int numberOfCannibalsOnSourceBank) {
+        return moveTable.isSafe(numberOfMissionariesOnSourceBank,
+                                numberOfCannibalsOnSourceBank);
+    }
+    
+    /**
+     * Writes the codes of all the safe states reachable from {@code code} by a
+     * single boat trip into {@code successors}. The successors are produced in
+     * the same order as {@link StateNode#getNeighbors()} lists them.
+     * 
+     * @param code       the code of the state to expand.
+     * @param successors the output buffer. Must have room for at least 
+     *                   {@link #getMaximumNumberOfSuccessors()} codes.
+     * @return the number of successor codes written.
+     */
+    int expand(int code, int[] successors) {
+        return moveTable.expand(code, successors);
+    }
+}
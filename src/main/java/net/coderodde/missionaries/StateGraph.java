@@ -0,0 +1,332 @@
+package net.coderodde.missionaries;
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * This class holds the entire state graph of a game reachable from its source
+ * state in compressed sparse row form. The nodes are the reachable state codes
+ * (see {@link StateCodec}) in ascending order; the neighbor codes of the node
+ * with index {@code i} occupy the arc range
+ * {@code [getOffset(i), getOffset(i + 1))}, in the order
+ * {@link StateCodec#expand(int, int[])} produces them.
+ * <p>
+ * A graph may be written to a binary file of the form
+ * <pre>
+ *   int magic, int version,
+ *   int missionaries, int cannibals, int boatCapacity,
+ *   int numberOfNodes, int numberOfArcs,
+ *   int[numberOfNodes] nodeCodes,
+ *   int[numberOfNodes + 1] offsets,
+ *   int[numberOfArcs] neighborCodes
+ * </pre>
+ * in big-endian order. A loaded graph reads the arrays straight from a
+ * memory-mapped buffer, so neither the graph is rebuilt nor the arrays are
+ * copied into the heap. The mapping is released when the graph becomes
+ * unreachable.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class StateGraph {
+
+    /**
+     * The first four bytes of a state graph file: "MCG1".
+     */
+    static final int MAGIC = 0x4D434731;
+    
+    /**
+     * The current file format version.
+     */
+    static final int VERSION = 1;
+    
+    /**
+     * The length of the file header in bytes.
+     */
+    private static final int HEADER_LENGTH = 28;
+    
+    /**
+     * The game parameters of this graph.
+     */
+    private final GameParameters gameParameters;
+    
+    /**
+     * The reachable state codes in ascending order.
+     */
+    private final IntBuffer nodeCodes;
+    
+    /**
+     * The first arc index of each node, followed by the number of arcs.
+     */
+    private final IntBuffer offsets;
+    
+    /**
+     * The neighbor codes of all the nodes, concatenated.
+     */
+    private final IntBuffer neighborCodes;
+    
+    private StateGraph(GameParameters gameParameters,
+                       IntBuffer nodeCodes,
+                       IntBuffer offsets,
+                       IntBuffer neighborCodes) {
+        this.gameParameters = gameParameters;
+        this.nodeCodes = nodeCodes;
+        this.offsets = offsets;
+        this.neighborCodes = neighborCodes;
+    }
+    
+    /**
+     * Enumerates every state reachable from the source state of the given game
+     * exactly once and collects the arcs between them.
+     *
+     * @param gameParameters the game parameters.
+     * @return the state graph.
+     */
+    static StateGraph build(GameParameters gameParameters) {
+        StateCodec codec = new StateCodec(gameParameters);
+        int numberOfStates = codec.getNumberOfStates();
+        int[] successors = new int[codec.getMaximumNumberOfSuccessors()];
+        boolean[] reached = new boolean[numberOfStates];
+        int[] queue = new int[numberOfStates];
+        int head = 0;
+        int tail = 0;
+        int sourceCode =
+                codec.encode(gameParameters.getTotalNumberOfMissionaries(),
+                             gameParameters.getTotalNumberOfCannibals(),
+                             BoatLocation.SOURCE_RIVER_BANK);
+        
+        reached[sourceCode] = true;
+        queue[tail++] = sourceCode;
+        
+        while (head < tail) {
+            int numberOfSuccessors = codec.expand(queue[head++], successors);
+            
+            for (int i = 0; i < numberOfSuccessors; i++) {
+                int successor = successors[i];
+                
+                if (!reached[successor]) {
+                    reached[successor] = true;
+                    queue[tail++] = successor;
+                }
+            }
+        }
+        
+        int[] nodeCodes = new int[tail];
+        int[] offsets = new int[tail + 1];
+        int[] neighborCodes = new int[Math.max(tail, 16)];
+        int numberOfNodes = 0;
+        int numberOfArcs = 0;
+        
+        for (int code = 0; code < numberOfStates; code++) {
+            if (!reached[code]) {
+                continue;
+            }
+            
+            int numberOfSuccessors = codec.expand(code, successors);
+            
+            if (neighborCodes.length - numberOfArcs < numberOfSuccessors) {
+                long capacity =
+                        Math.max(2L * neighborCodes.length,
+                                 (long) numberOfArcs + numberOfSuccessors);
+                
+                if (capacity > Integer.MAX_VALUE - 8) {
+                    throw new IllegalStateException(
+                            "The state graph has too many arcs.");
+                }
+                
+                neighborCodes = Arrays.copyOf(neighborCodes, (int) capacity);
+            }
+            
+            System.arraycopy(successors,
+                             0,
+                             neighborCodes,
+                             numberOfArcs,
+                             numberOfSuccessors);
+            
+            nodeCodes[numberOfNodes] = code;
+            offsets[numberOfNodes++] = numberOfArcs;
+            numberOfArcs += numberOfSuccessors;
+        }
+        
+        offsets[numberOfNodes] = numberOfArcs;
+        
+        return new StateGraph(gameParameters,
+                              IntBuffer.wrap(nodeCodes),
+                              IntBuffer.wrap(offsets),
+                              IntBuffer.wrap(neighborCodes, 0, numberOfArcs)
+                                       .slice());
+    }
+    
+    /**
+     * Maps a graph file written by {@link #write(Path)}.
+     *
+     * @param file the file to load.
+     * @return the memory-mapped state graph.
+     * @throws IOException if the file cannot be read or is not a valid graph
+     *                     file.
+     */
+    static StateGraph load(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        
+        try (FileChannel channel = FileChannel.open(file,
+                                                    StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_LENGTH) {
+                throw new IOException("Not a state graph file: " + file);
+            }
+            
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("State graph file too large: " + file);
+            }
+            
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                                 0L,
+                                 channel.size());
+        }
+        
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a state graph file: " + file);
+        }
+        
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException(
+                    "Unsupported state graph version " + buffer.getInt(4) +
+                    " in " + file);
+        }
+        
+        GameParameters gameParameters = new GameParameters(buffer.getInt(8),
+                                                           buffer.getInt(12),
+                                                           buffer.getInt(16));
+        int numberOfNodes = buffer.getInt(20);
+        int numberOfArcs = buffer.getInt(24);
+        long expectedLength =
+                HEADER_LENGTH + 4L * (2L * numberOfNodes + 1L + numberOfArcs);
+        
+        if (numberOfNodes < 0 || numberOfArcs < 0 ||
+                buffer.capacity() != expectedLength) {
+            throw new IOException("Corrupted state graph file: " + file);
+        }
+        
+        buffer.position(HEADER_LENGTH);
+        IntBuffer ints = buffer.asIntBuffer();
+        
+        return new StateGraph(gameParameters,
+                              section(ints, 0, numberOfNodes),
+                              section(ints, numberOfNodes, numberOfNodes + 1),
+                              section(ints, 2 * numberOfNodes + 1,
+                                      numberOfArcs));
+    }
+    
+    /**
+     * Writes this graph to the given file, replacing its contents.
+     *
+     * @param file the file to write.
+     * @throws IOException if writing fails.
+     */
+    void write(Path file) throws IOException {
+        int numberOfNodes = getNumberOfNodes();
+        int numberOfArcs = getNumberOfArcs();
+        long length =
+                HEADER_LENGTH + 4L * (2L * numberOfNodes + 1L + numberOfArcs);
+        
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("State graph too large to write.");
+        }
+        
+        try (FileChannel channel =
+                FileChannel.open(file,
+                                 StandardOpenOption.CREATE,
+                                 StandardOpenOption.READ,
+                                 StandardOpenOption.WRITE,
+                                 StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer =
+                    channel.map(FileChannel.MapMode.READ_WRITE, 0L, length);
+            
+            buffer.putInt(MAGIC)
+                  .putInt(VERSION)
+                  .putInt(gameParameters.getTotalNumberOfMissionaries())
+                  .putInt(gameParameters.getTotalNumberOfCannibals())
+                  .putInt(gameParameters.getBoatCapacity())
+                  .putInt(numberOfNodes)
+                  .putInt(numberOfArcs);
+            
+            IntBuffer ints = buffer.asIntBuffer();
+            ints.put(nodeCodes.duplicate());
+            ints.put(offsets.duplicate());
+            ints.put(neighborCodes.duplicate());
+            buffer.force();
+        }
+    }
+    
+    GameParameters getGameParameters() {
+        return gameParameters;
+    }
+    
+    int getNumberOfNodes() {
+        return nodeCodes.limit();
+    }
+    
+    int getNumberOfArcs() {
+        return neighborCodes.limit();
+    }
+    
+    int getNodeCode(int nodeIndex) {
+        return nodeCodes.get(nodeIndex);
+    }
+    
+    /**
+     * Finds the index of the node with the given code.
+     *
+     * @param code the state code.
+     * @return the node index, or -1 if the state is not reachable.
+     */
+    int getNodeIndex(int code) {
+        int low = 0;
+        int high = nodeCodes.limit() - 1;
+        
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleCode = nodeCodes.get(middle);
+            
+            if (middleCode < code) {
+                low = middle + 1;
+            } else if (middleCode > code) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * Returns the index of the first arc of the given node. Passing
+     * {@code getNumberOfNodes()} returns the total number of arcs.
+     *
+     * @param nodeIndex the node index.
+     * @return the first arc index.
+     */
+    int getOffset(int nodeIndex) {
+        return offsets.get(nodeIndex);
+    }
+    
+    int getOutDegree(int nodeIndex) {
+        return offsets.get(nodeIndex + 1) - offsets.get(nodeIndex);
+    }
+    
+    int getNeighborCode(int arcIndex) {
+        return neighborCodes.get(arcIndex);
+    }
+    
+    private static IntBuffer section(IntBuffer ints, int offset, int length) {
+        IntBuffer view = ints.duplicate();
+        view.position(offset);
+        view.limit(offset + length);
+        return view.slice();
+    }
+}
@@ -13,12 +13,6 @@ import java.util.Objects;
  */
 final class StateNode {
     
-    private static int counter;
-    
-    static int getCounter() {
-        return counter;
-    }
-    
     /**
      * The number of missionaries on the source bank. The number of missionaries
      * on the target bank is {@code gameParameters.getTotalNumber}
@@ -42,9 +36,16 @@ final class StateNode {
     private final BoatLocation boatLocation;
     
     /**
-     * The list of all neighbor states.
+     * The registry holding this node as its canonical instance, or 
+     * {@code null} if the node was constructed directly.
+     */
+    private final StateNodeRegistry registry;
+    
+    /**
+     * The unmodifiable list of all neighbor states. Built lazily; if two 
+     * threads race to build it, both build equal lists and either one wins.
      */
-    private List<StateNode> neighbors;
+    private volatile List<StateNode> neighbors;
     
     /**
      * Constructs a state.
@@ -71,7 +72,21 @@ final class StateNode {
               int numberOfCannibalsOnSourceBank,
               GameParameters configuration,
               BoatLocation boatLocation) {
-        counter++;
+        this(numberOfMissionariesOnSourceBank,
+             numberOfCannibalsOnSourceBank,
+             configuration,
+             boatLocation,
+             null);
+    }
+    
+    /**
+     * Constructs the canonical instance of a state in {@code registry}.
+     */
+    StateNode(int numberOfMissionariesOnSourceBank,
+              int numberOfCannibalsOnSourceBank,
+              GameParameters configuration,
+              BoatLocation boatLocation,
+              StateNodeRegistry registry) {
         this.numberOfMissionariesOnSourceBank = 
                 numberOfMissionariesOnSourceBank;
         
@@ -80,6 +95,27 @@ final class StateNode {
         
         this.gameParameters = configuration;
         this.boatLocation = boatLocation;
+        this.registry = registry;
+    }
+    
+    int getNumberOfMissionariesOnSourceBank() {
+        return numberOfMissionariesOnSourceBank;
+    }
+    
+    int getNumberOfCannibalsOnSourceBank() {
+        return numberOfCannibalsOnSourceBank;
+    }
+    
+    GameParameters getGameParameters() {
+        return gameParameters;
+    }
+    
+    BoatLocation getBoatLocation() {
+        return boatLocation;
+    }
+    
+    StateNodeRegistry getRegistry() {
+        return registry;
     }
     
     @Override
@@ -114,7 +150,7 @@ final class StateNode {
         
         return boatLocation == otherStateNode.boatLocation;
     }
-
+    
     @Override
     public int hashCode() {
         int hash = 3;
@@ -128,45 +164,45 @@ final class StateNode {
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
-
+        
         int missionaryFieldLength = 
                 ("" + gameParameters.getTotalNumberOfMissionaries()).length();
-
+        
         int cannibalFieldLength = 
                 ("" + gameParameters.getTotalNumberOfCannibals()).length();
-
+        
         // Situation at the source bank.
         sb.append(String.format("[m: %" + missionaryFieldLength + "d",
                   numberOfMissionariesOnSourceBank));
-
+        
         sb.append(String.format(", c: %" + cannibalFieldLength + "d]",
                   numberOfCannibalsOnSourceBank));
-
+        
         // Draw the boat location.
         switch (boatLocation) {
             case SOURCE_RIVER_BANK: {
                 sb.append("v ~~~  ");
                 break;
             }
-
+            
             case TARGET_RIVER_BANK: {
                 sb.append("  ~~~ v");
                 break;
             }
         }
-
+        
         // Situation at the destination bank.
         sb.append(String.format("[m: %" + missionaryFieldLength + "d",
                   gameParameters.getTotalNumberOfMissionaries() - 
                       numberOfMissionariesOnSourceBank));
-
+        
         sb.append(String.format(", c: %" + cannibalFieldLength + "d]",
                   gameParameters.getTotalNumberOfCannibals() -
                       numberOfCannibalsOnSourceBank));
-
+        
         return sb.toString();
     }
-
+    
     
     boolean isTerminalState() {
         if (numberOfMissionariesOnSourceBank > 0 && 
@@ -187,103 +223,41 @@ final class StateNode {
     }
     
     private List<StateNode> buildNeighborsList() {
-        neighbors = new ArrayList<>();
-        BoatLocation currentBoatLocation = this.boatLocation;
-        
-        switch (currentBoatLocation) {
-            case SOURCE_RIVER_BANK:
-                return trySendFromSource();
-                
-            case TARGET_RIVER_BANK:
-                return trySendFromTarget();
-        }
+        StateNodeRegistry registry = StateNodeRegistry.get(this);
+        StateCodec codec = registry.getCodec();
+        int[] successors = new int[codec.getMaximumNumberOfSuccessors()];
+        int numberOfSuccessors = codec.expand(codec.encode(this), successors);
+        List<StateNode> neighborStates = new ArrayList<>(numberOfSuccessors);
         
-        throw new IllegalStateException(
-                "Unknown BoatLocation enumeration: " + currentBoatLocation);
-    }
-    
-    private List<StateNode> trySendFromSource() {
-        List<StateNode> neighborStates = new ArrayList<>();
-        int boatCapacity = gameParameters.getBoatCapacity();
-        int availableMissionaries = Math.min(numberOfMissionariesOnSourceBank,
-                                             boatCapacity);
-        
-        for (int m = 0; m <= availableMissionaries; m++) {
-            for (int c = ((m == 0) ? 1 : 0),
-                 availableCannibals = Math.min(numberOfCannibalsOnSourceBank, 
-                                               boatCapacity - m);
-                 c <= availableCannibals;
-                 c++) {
-                StateNode stateNode =
-                        new StateNode(numberOfMissionariesOnSourceBank - m,
-                                      numberOfCannibalsOnSourceBank - c,
-                                      gameParameters,
-                                      BoatLocation.TARGET_RIVER_BANK);
-                
-                if (!stateNode.isTerminalState()) {
-                    neighborStates.add(stateNode);
-                }
-            }
+        for (int i = 0; i < numberOfSuccessors; i++) {
+            neighborStates.add(registry.getStateNode(successors[i]));
         }
         
         return neighborStates;
     }
     
-    private List<StateNode> trySendFromTarget() {
-        List<StateNode> neighborStates = new ArrayList<>();
-        
-        int boatCapacity = gameParameters.getBoatCapacity();
-        
-        int availableMissionaries
-                = Math.min(boatCapacity,
-                           gameParameters.getTotalNumberOfMissionaries() -
-                                   numberOfMissionariesOnSourceBank);
-        
-        int availableCannibals
-                = Math.min(boatCapacity,
-                           gameParameters.getTotalNumberOfCannibals() -
-                                   numberOfCannibalsOnSourceBank);
-        
-        for (int m = 0; m <= availableMissionaries; m++) {
-            for (int c = ((m == 0) ? 1 : 0), 
-                     cend = Math.min(availableCannibals, boatCapacity - m);
-                 c <= availableCannibals;
-                 c++) {
-                StateNode stateNode =
-                        new StateNode(numberOfMissionariesOnSourceBank + m,
-                                      numberOfCannibalsOnSourceBank + c,
-                                      gameParameters,
-                                      BoatLocation.SOURCE_RIVER_BANK);
-                
-                if (!stateNode.isTerminalState()) {
-                    neighborStates.add(stateNode);
-                }
-            }
-        }
-        
-        return neighborStates;
-    }
-          
-    
     List<StateNode> getNeighbors() {
-        if (neighbors == null) {
-            neighbors = buildNeighborsList();
+        List<StateNode> neighborList = neighbors;
+        
+        if (neighborList == null) {
+            neighborList = Collections.unmodifiableList(buildNeighborsList());
+            neighbors = neighborList;
         }
         
-        return Collections.unmodifiableList(neighbors);
+        return neighborList;
     }
     
     static StateNode getSourceState(GameParameters gameParameters) {
-        return new StateNode(gameParameters.getTotalNumberOfMissionaries(),
-                             gameParameters.getTotalNumberOfCannibals(),
-                             gameParameters,
-                             BoatLocation.SOURCE_RIVER_BANK);
+        return StateNodeRegistry.get(gameParameters)
+                .getStateNode(gameParameters.getTotalNumberOfMissionaries(),
+                              gameParameters.getTotalNumberOfCannibals(),
+                              BoatLocation.SOURCE_RIVER_BANK);
     }
     
     static StateNode getTargetState(GameParameters gameParameters) {
-        return new StateNode(0, 
-                             0,
-                             gameParameters,
-                             BoatLocation.TARGET_RIVER_BANK);
+        return StateNodeRegistry.get(gameParameters)
+                .getStateNode(0, 
+                              0,
+                              BoatLocation.TARGET_RIVER_BANK);
     }
 }
@@ -1,25 +1,46 @@
 package net.coderodde.missionaries;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
- * This class implements an unweighted path in a state node.
+ * This class implements an unweighted path in a state node. The path is an
+ * immutable linked list pointing from its last node towards the source, so
+ * appending a node takes constant time and the paths extended from a common
+ * prefix share it.
  * 
  * @author Rodion "rodde" Efremov
  * @version 1.6 (Nov 26, 2018)
  */
 public final class StateNodePath implements Comparable {
     
-    private final List<StateNode> nodeList = new ArrayList<>();
+    /**
+     * The last node of this path.
+     */
+    private final StateNode endPoint;
+    
+    /**
+     * This path without its last node, or {@code null} if this path consists
+     * of the source node only.
+     */
+    private final StateNodePath prefix;
+    
+    /**
+     * The number of nodes on this path.
+     */
+    private final int numberOfNodes;
     
     public StateNodePath(StateNode sourceStateNode) {
-        nodeList.add(sourceStateNode);
+        this.endPoint = sourceStateNode;
+        this.prefix = null;
+        this.numberOfNodes = 1;
     }
     
     private StateNodePath(StateNodePath stateNodePath, StateNode stateNode) {
-        nodeList.addAll(stateNodePath.nodeList);
-        nodeList.add(stateNode);
+        this.endPoint = stateNode;
+        this.prefix = stateNodePath;
+        this.numberOfNodes = stateNodePath.numberOfNodes + 1;
     }
     
     public StateNodePath append(StateNode stateNode) {
@@ -27,25 +48,41 @@ public final class StateNodePath implements Comparable {
     }
     
     public StateNode getEndPoint() {
-        return nodeList.get(nodeList.size() - 1);
+        return endPoint;
     }
     
     public int getNumberOfNodes() {
-        return nodeList.size();
+        return numberOfNodes;
+    }
+    
+    /**
+     * Returns the nodes of this path, starting from the source node.
+     * 
+     * @return the list of nodes.
+     */
+    public List<StateNode> toList() {
+        List<StateNode> nodeList = new ArrayList<>(numberOfNodes);
+        
+        for (StateNodePath path = this; path != null; path = path.prefix) {
+            nodeList.add(path.endPoint);
+        }
+        
+        Collections.<StateNode>reverse(nodeList);
+        return nodeList;
     }
 
     @Override
     public int compareTo(Object o) {
         StateNodePath otherStateNodePath = (StateNodePath) o;
-        return Integer.compare(nodeList.size(), 
-                               otherStateNodePath.nodeList.size());
+        return Integer.compare(numberOfNodes, 
+                               otherStateNodePath.numberOfNodes);
     }
     
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
         
-        for (StateNode stateNode : this.nodeList) {
+        for (StateNode stateNode : toList()) {
             sb.append(stateNode.toString()).append("\n");
         }
         
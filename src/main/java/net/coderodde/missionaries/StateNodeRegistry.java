@@ -0,0 +1,193 @@
+package net.coderodde.missionaries;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This class maintains the canonical {@link StateNode} instances of a game. 
+ * The nodes are stored in a flat array indexed by their {@link StateCodec} 
+ * codes and are created on first request, so that each state, along with its 
+ * cached neighbor list, is built only once and is shared by all the searches
+ * over the same {@link GameParameters}. The registry is safe to share between
+ * threads: racing requests for the same state agree on a single instance.
+ * <p>
+ * Each canonical node remembers its registry, and the searches taking state 
+ * nodes resolve the registry through {@link #get(StateNode)}, so a caller may
+ * work in a private registry (see {@link #createPrivate(GameParameters)}) 
+ * that is dropped along with its nodes, leaving the shared registries of the
+ * other callers untouched.
+ * <p>
+ * The shared registries are held through soft references, so the garbage 
+ * collector may reclaim the registries of the games no longer in use when 
+ * memory runs low. As every canonical node keeps its registry strongly 
+ * reachable, a registry is reclaimed only once none of its nodes is 
+ * referenced, so no caller can observe two canonical instances of a state.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class StateNodeRegistry {
+    
+    /**
+     * Maps each game parameters object to its shared registry.
+     */
+    private static final Map<GameParameters, RegistryReference> REGISTRIES =
+            new ConcurrentHashMap<>();
+    
+    /**
+     * Receives the references to the reclaimed registries.
+     */
+    private static final ReferenceQueue<StateNodeRegistry> RECLAIMED = 
+            new ReferenceQueue<>();
+    
+    /**
+     * The codec mapping the states to array indices.
+     */
+    private final StateCodec codec;
+    
+    /**
+     * The canonical state nodes indexed by their codes.
+     */
+    private final AtomicReferenceArray<StateNode> stateNodes;
+    
+    /**
+     * The number of state nodes created so far.
+     */
+    private final AtomicInteger size = new AtomicInteger();
+    
+    private StateNodeRegistry(GameParameters gameParameters) {
+        this.codec = new StateCodec(gameParameters);
+        this.stateNodes = 
+                new AtomicReferenceArray<>(codec.getNumberOfStates());
+    }
+    
+    static StateNodeRegistry get(GameParameters gameParameters) {
+        expungeReclaimedRegistries();
+        RegistryReference reference = REGISTRIES.get(gameParameters);
+        StateNodeRegistry registry = reference == null ? null : reference.get();
+        
+        if (registry != null) {
+            return registry;
+        }
+        
+        // Keeps the registry strongly reachable until it is returned.
+        StateNodeRegistry[] holder = new StateNodeRegistry[1];
+        
+        REGISTRIES.compute(gameParameters, (key, current) -> {
+            holder[0] = current == null ? null : current.get();
+            
+            if (holder[0] != null) {
+                return current;
+            }
+            
+            holder[0] = new StateNodeRegistry(key);
+            return new RegistryReference(key, holder[0]);
+        });
+        
+        return holder[0];
+    }
+    
+    /**
+     * Returns the registry of a state node: the one holding it if it is 
+     * canonical, and the shared registry of its game otherwise.
+     * 
+     * @param stateNode the state node.
+     * @return the registry to use along with {@code stateNode}.
+     */
+    static StateNodeRegistry get(StateNode stateNode) {
+        StateNodeRegistry registry = stateNode.getRegistry();
+        return registry != null ? 
+                registry : 
+                get(stateNode.getGameParameters());
+    }
+    
+    /**
+     * Creates a registry not shared with any other caller. It becomes garbage
+     * as soon as neither it nor any of its nodes is referenced.
+     * 
+     * @param gameParameters the game parameters.
+     * @return a new registry.
+     */
+    static StateNodeRegistry createPrivate(GameParameters gameParameters) {
+        return new StateNodeRegistry(gameParameters);
+    }
+    
+    /**
+     * Removes the map entries whose registries have been reclaimed.
+     */
+    private static void expungeReclaimedRegistries() {
+        Reference<? extends StateNodeRegistry> reference;
+        
+        while ((reference = RECLAIMED.poll()) != null) {
+            RegistryReference registryReference = 
+                    (RegistryReference) reference;
+            REGISTRIES.remove(registryReference.gameParameters, 
+                              registryReference);
+        }
+    }
+    
+    StateCodec getCodec() {
+        return codec;
+    }
+    
+    StateNode getStateNode(int code) {
+        StateNode stateNode = stateNodes.get(code);
+        
+        if (stateNode != null) {
+            return stateNode;
+        }
+        
+        stateNode = 
+            new StateNode(codec.getNumberOfMissionariesOnSourceBank(code),
+                          codec.getNumberOfCannibalsOnSourceBank(code),
+                          codec.getGameParameters(),
+                          codec.getBoatLocation(code),
+                          this);
+        
+        if (stateNodes.compareAndSet(code, null, stateNode)) {
+            size.incrementAndGet();
+            return stateNode;
+        }
+        
+        // Another thread won the race.
+        return stateNodes.get(code);
+    }
+    
+    StateNode getStateNode(int numberOfMissionariesOnSourceBank,
+                           int numberOfCannibalsOnSourceBank,
+                           BoatLocation boatLocation) {
+        return getStateNode(codec.encode(numberOfMissionariesOnSourceBank,
+                                         numberOfCannibalsOnSourceBank,
+                                         boatLocation));
+    }
+    
+    /**
+     * Returns the number of distinct state nodes created so far.
+     * 
+     * @return the number of state nodes.
+     */
+    int size() {
+        return size.get();
+    }
+    
+    /**
+     * A soft reference to a shared registry, remembering its key for removing
+     * the map entry after the registry is reclaimed.
+     */
+    private static final class RegistryReference 
+            extends SoftReference<StateNodeRegistry> {
+        
+        private final GameParameters gameParameters;
+        
+        RegistryReference(GameParameters gameParameters, 
+                          StateNodeRegistry registry) {
+            super(registry, RECLAIMED);
+            this.gameParameters = gameParameters;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package net.coderodde.missionaries;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.coderodde.missionaries.search.SearchGraph;
+
+/**
+ * This class adapts the packed state codes of a game (see {@link StateCodec})
+ * to the search algorithms of the {@code net.coderodde.missionaries.search}
+ * package: the node id of a state is its code.
+ * <p>
+ * Every boat trip between two safe states can be undone, so the predecessors
+ * of a safe state are its successors, except for the unsafe states, which
+ * have successors but no predecessors. The backward expansion of a safe state
+ * omits them; only an unsafe source could be affected, and the searches
+ * expand the source forwards.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class StateSearchGraph implements SearchGraph {
+
+    /**
+     * The registry of the game, used for converting codes to states.
+     */
+    private final StateNodeRegistry registry;
+    
+    /**
+     * The codec of the game.
+     */
+    private final StateCodec codec;
+    
+    StateSearchGraph(GameParameters gameParameters) {
+        this.registry = StateNodeRegistry.get(gameParameters);
+        this.codec = registry.getCodec();
+    }
+    
+    @Override
+    public int getNumberOfNodes() {
+        return codec.getNumberOfStates();
+    }
+    
+    @Override
+    public int getMaximumDegree() {
+        return codec.getMaximumNumberOfSuccessors();
+    }
+    
+    @Override
+    public int expand(int node, int[] successors) {
+        return codec.expand(node, successors);
+    }
+    
+    @Override
+    public int expandBackwards(int node, int[] predecessors) {
+        if (!codec.isSafe(codec.getNumberOfMissionariesOnSourceBank(node),
+                          codec.getNumberOfCannibalsOnSourceBank(node))) {
+            return 0;
+        }
+        
+        return codec.expand(node, predecessors);
+    }
+    
+    int getNode(StateNode stateNode) {
+        return codec.encode(stateNode);
+    }
+    
+    StateNode getStateNode(int node) {
+        return registry.getStateNode(node);
+    }
+    
+    /**
+     * Converts a path of node ids to the corresponding states.
+     *
+     * @param path the node ids of a path.
+     * @return the states of the path.
+     */
+    List<StateNode> toStateNodes(int[] path) {
+        List<StateNode> stateNodes = new ArrayList<>(path.length);
+        
+        for (int node : path) {
+            stateNodes.add(registry.getStateNode(node));
+        }
+        
+        return stateNodes;
+    }
+}
@@ -0,0 +1,111 @@
+package net.coderodde.missionaries;
+
+import java.math.BigInteger;
+import java.util.Locale;
+
+/**
+ * This class holds the outcome of solving a single configuration of a 
+ * parameter sweep.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class SweepResult {
+    
+    /**
+     * The column names of the CSV rows.
+     */
+    static final String CSV_HEADER = 
+            "missionaries,cannibals,boat_capacity,solvable," +
+            "optimal_length,optimal_solutions,states_visited,time_ms";
+    
+    /**
+     * The solved configuration.
+     */
+    private final GameParameters gameParameters;
+    
+    /**
+     * The number of boat trips in an optimal solution, or -1 if there is no
+     * solution.
+     */
+    private final int optimalLength;
+    
+    /**
+     * The number of distinct optimal solutions.
+     */
+    private final BigInteger numberOfOptimalSolutions;
+    
+    /**
+     * The number of states visited by the breadth-first search.
+     */
+    private final long numberOfVisitedStates;
+    
+    /**
+     * The time spent on the configuration in nanoseconds.
+     */
+    private final long durationNanos;
+    
+    SweepResult(GameParameters gameParameters,
+                int optimalLength,
+                BigInteger numberOfOptimalSolutions,
+                long numberOfVisitedStates,
+                long durationNanos) {
+        this.gameParameters = gameParameters;
+        this.optimalLength = optimalLength;
+        this.numberOfOptimalSolutions = numberOfOptimalSolutions;
+        this.numberOfVisitedStates = numberOfVisitedStates;
+        this.durationNanos = durationNanos;
+    }
+    
+    GameParameters getGameParameters() {
+        return gameParameters;
+    }
+    
+    boolean isSolvable() {
+        return optimalLength >= 0;
+    }
+    
+    int getOptimalLength() {
+        return optimalLength;
+    }
+    
+    BigInteger getNumberOfOptimalSolutions() {
+        return numberOfOptimalSolutions;
+    }
+    
+    long getNumberOfVisitedStates() {
+        return numberOfVisitedStates;
+    }
+    
+    long getDurationNanos() {
+        return durationNanos;
+    }
+    
+    String toCsvRow() {
+        return gameParameters.getTotalNumberOfMissionaries() + "," +
+               gameParameters.getTotalNumberOfCannibals() + "," +
+               gameParameters.getBoatCapacity() + "," +
+               isSolvable() + "," +
+               optimalLength + "," +
+               numberOfOptimalSolutions + "," +
+               numberOfVisitedStates + "," +
+               formatMillis();
+    }
+    
+    String toJsonLine() {
+        return "{\"missionaries\":" + 
+                    gameParameters.getTotalNumberOfMissionaries() +
+               ",\"cannibals\":" + 
+                    gameParameters.getTotalNumberOfCannibals() +
+               ",\"boat_capacity\":" + gameParameters.getBoatCapacity() +
+               ",\"solvable\":" + isSolvable() +
+               ",\"optimal_length\":" + optimalLength +
+               ",\"optimal_solutions\":" + numberOfOptimalSolutions +
+               ",\"states_visited\":" + numberOfVisitedStates +
+               ",\"time_ms\":" + formatMillis() + "}";
+    }
+    
+    private String formatMillis() {
+        return String.format(Locale.ROOT, "%.3f", durationNanos / 1e6);
+    }
+}
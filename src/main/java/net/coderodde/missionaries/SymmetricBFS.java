@@ -0,0 +1,252 @@
+package net.coderodde.missionaries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class solves a game by a breadth-first search from the source state
+ * that stops halfway, exploiting the symmetry of the game under swapping the
+ * banks. The mirror image of a state (see {@link StateCodec#mirror(int)})
+ * preserves safety, and the mirror images of a boat trip's endpoints are
+ * joined by the reverse trip, so mirroring maps the source state to the
+ * target state and every path from the source to a state {@code y} to a path
+ * from the mirror image of {@code y} to the target. This holds for any numbers
+ * of missionaries and cannibals, not only for equal ones.
+ * <p>
+ * Every boat trip moves the boat, so every solution has an odd length
+ * {@code 2d + 1}. Its {@code d}-th state {@code x} is at distance {@code d}
+ * from the source, and the mirror image of its next state {@code z} is at
+ * distance {@code d} from the source as well. The search therefore stops at
+ * the first expanded state {@code x} having a successor {@code z} whose
+ * mirror image was already reached, and the solution is the path to
+ * {@code x} followed by the mirrored reversal of the path to the mirror image
+ * of {@code z}. As the mirror image of {@code z} is on the same bank as
+ * {@code x}, and the search has not gone beyond the layer after the one of
+ * {@code x}, the first such pair is an optimal one.
+ * <p>
+ * The search expands only the states at most halfway to the target, and keeps
+ * a single parent map, whereas {@link BidirectionalBFS} keeps two. The parent
+ * map is an open-addressing hash table keyed by state codes, and the queue is
+ * a growable array, so both are sized by the states reached within half of 
+ * the solution length rather than by the number of states of the game. The 
+ * only per-game table left is the safety bitmap of the codec, one bit per 
+ * bank configuration. For the same reason, the path is built of new state 
+ * nodes, equal to, but not the same as, the canonical ones.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class SymmetricBFS {
+    
+    /**
+     * The initial capacity of the queue and of the parent map.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+    
+    static List<StateNode> search(GameParameters gameParameters) {
+        return search(gameParameters, new SearchStatistics());
+    }
+    
+    /**
+     * Searches for a shortest path from the source state to the target state
+     * of a game.
+     *
+     * @param gameParameters the game parameters.
+     * @param statistics     the statistics to fill in.
+     * @return the shortest path.
+     * @throws IllegalStateException if the target is not reachable.
+     */
+    static List<StateNode> search(GameParameters gameParameters,
+                                  SearchStatistics statistics) {
+        long startTime = System.nanoTime();
+        StateCodec codec = new StateCodec(gameParameters);
+        int sourceCode =
+                codec.encode(gameParameters.getTotalNumberOfMissionaries(),
+                             gameParameters.getTotalNumberOfCannibals(),
+                             BoatLocation.SOURCE_RIVER_BANK);
+        ParentMap parents = new ParentMap();
+        int[] queue = new int[INITIAL_CAPACITY];
+        int[] successors = new int[codec.getMaximumNumberOfSuccessors()];
+        int head = 0;
+        int tail = 0;
+        long numberOfGeneratedNodes = 0L;
+        int peakFrontierSize = 1;
+        
+        parents.put(sourceCode, PackedBFS.NO_PARENT);
+        queue[tail++] = sourceCode;
+        
+        try {
+            if (!codec.isSafe(gameParameters.getTotalNumberOfMissionaries(),
+                              gameParameters.getTotalNumberOfCannibals())) {
+                // The unsafe source has successors, yet the unsafe target
+                // has no predecessors, so the mirroring would be wrong.
+                statistics.setPhaseDurationNanos(
+                        SearchPhase.SEARCH,
+                        System.nanoTime() - startTime);
+                throw new IllegalStateException();
+            }
+            
+            while (head < tail) {
+                int current = queue[head++];
+                int numberOfSuccessors = codec.expand(current, successors);
+                numberOfGeneratedNodes += numberOfSuccessors;
+                
+                for (int i = 0; i < numberOfSuccessors; i++) {
+                    int child = successors[i];
+                    
+                    if (parents.get(codec.mirror(child)) != 
+                            PackedBFS.UNVISITED) {
+                        long tracebackStartTime = System.nanoTime();
+                        List<StateNode> path = new ArrayList<>();
+                        
+                        for (int code = current;
+                                code != PackedBFS.NO_PARENT;
+                                code = parents.get(code)) {
+                            path.add(codec.decode(code));
+                        }
+                        
+                        Collections.reverse(path);
+                        
+                        for (int code = codec.mirror(child);
+                                code != PackedBFS.NO_PARENT;
+                                code = parents.get(code)) {
+                            path.add(codec.decode(codec.mirror(code)));
+                        }
+                        
+                        statistics.setPhaseDurationNanos(
+                                SearchPhase.SEARCH,
+                                tracebackStartTime - startTime);
+                        statistics.setPhaseDurationNanos(
+                                SearchPhase.TRACEBACK,
+                                System.nanoTime() - tracebackStartTime);
+                        return path;
+                    }
+                    
+                    if (parents.get(child) == PackedBFS.UNVISITED) {
+                        parents.put(child, current);
+                        
+                        if (tail == queue.length) {
+                            queue = Arrays.copyOf(queue, 2 * tail);
+                        }
+                        
+                        queue[tail++] = child;
+                    }
+                }
+                
+                peakFrontierSize = Math.max(peakFrontierSize, tail - head);
+            }
+            
+            statistics.setPhaseDurationNanos(SearchPhase.SEARCH,
+                                             System.nanoTime() - startTime);
+            throw new IllegalStateException();
+        } finally {
+            statistics.setNumberOfGeneratedNodes(numberOfGeneratedNodes);
+            statistics.setNumberOfExpandedNodes(head);
+            statistics.setNumberOfRejectedDuplicates(
+                    numberOfGeneratedNodes - tail + 1);
+            statistics.setPeakFrontierSize(peakFrontierSize);
+            statistics.setNumberOfVisitedNodes(tail);
+            statistics.publish("SymmetricBFS");
+        }
+    }
+    
+    private SymmetricBFS() {
+    
+    }
+    
+    /**
+     * This class maps state codes to the codes of their parents. It uses 
+     * linear probing in a power-of-two table kept at most half full.
+     */
+    private static final class ParentMap {
+        
+        /**
+         * Marks an empty slot. State codes are never negative.
+         */
+        private static final int EMPTY = -1;
+        
+        private int[] keys = newKeyTable(INITIAL_CAPACITY);
+        private int[] values = new int[INITIAL_CAPACITY];
+        private int size;
+        
+        /**
+         * Returns the parent of a state code.
+         * 
+         * @param code the state code.
+         * @return the parent code, or {@link PackedBFS#UNVISITED} if the code 
+         *         is not in the map.
+         */
+        int get(int code) {
+            int mask = keys.length - 1;
+            
+            for (int slot = hash(code) & mask; 
+                    keys[slot] != EMPTY;
+                    slot = (slot + 1) & mask) {
+                if (keys[slot] == code) {
+                    return values[slot];
+                }
+            }
+            
+            return PackedBFS.UNVISITED;
+        }
+        
+        /**
+         * Maps a state code not yet in the map to its parent.
+         * 
+         * @param code   the state code.
+         * @param parent the parent code.
+         */
+        void put(int code, int parent) {
+            if (2 * (size + 1) > keys.length) {
+                rehash();
+            }
+            
+            insert(keys, values, code, parent);
+            size++;
+        }
+        
+        private void rehash() {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = newKeyTable(2 * oldKeys.length);
+            values = new int[2 * oldValues.length];
+            
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                if (oldKeys[slot] != EMPTY) {
+                    insert(keys, values, oldKeys[slot], oldValues[slot]);
+                }
+            }
+        }
+        
+        private static void insert(int[] keys, 
+                                   int[] values, 
+                                   int code, 
+                                   int parent) {
+            int mask = keys.length - 1;
+            int slot = hash(code) & mask;
+            
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            
+            keys[slot] = code;
+            values[slot] = parent;
+        }
+        
+        private static int[] newKeyTable(int capacity) {
+            int[] keys = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+        
+        /**
+         * Scatters the consecutive codes of a layer over the table.
+         */
+        private static int hash(int code) {
+            int h = code * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
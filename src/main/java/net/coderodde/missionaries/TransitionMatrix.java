@@ -0,0 +1,493 @@
+package net.coderodde.missionaries;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class counts the crossing sequences of a given length that solve a
+ * game, by exponentiating the sparse transition matrix of its
+ * {@link StateGraph}. A crossing sequence ends as soon as it reaches the
+ * target state, so the target row of the matrix holds a single arc to an
+ * extra absorbing sink state with a self-loop. Then the number of sequences
+ * of exactly {@code L} crossings is entry {@code (source, target)} of
+ * {@code A^L}, and the number of sequences of at most {@code L} crossings is
+ * entry {@code (source, sink)} of {@code A^(L + 1)}.
+ * <p>
+ * A query multiplies the source row vector by the cached powers
+ * {@code A^(2^i)} for the set bits {@code i} of the length, so it takes
+ * {@code O(log L)} vector-matrix products once the powers are in place. The
+ * powers are computed by repeated squaring on first demand, in sparse
+ * row-compressed form, and are reused by all later queries: their sparsity
+ * patterns are shared, their entries are kept per modulus and in
+ * {@link BigInteger}s. As the powers fill in quickly, this class is meant for
+ * state graphs of up to a few thousand states.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class TransitionMatrix {
+
+    /**
+     * The largest supported modulus. Products of two residues fit in a
+     * {@code long}.
+     */
+    static final long MAXIMUM_MODULUS = 1L << 31;
+    
+    /**
+     * The number of rows and columns of the matrix.
+     */
+    private final int size;
+    
+    /**
+     * The row of the source state.
+     */
+    private final int sourceIndex;
+    
+    /**
+     * The row of the target state, or -1 if it is not reachable.
+     */
+    private final int targetIndex;
+    
+    /**
+     * The row of the absorbing sink state.
+     */
+    private final int sinkIndex;
+    
+    /**
+     * {@code patterns.get(i)} is the sparsity pattern of {@code A^(2^i)}.
+     */
+    private final List<Pattern> patterns = new ArrayList<>();
+    
+    /**
+     * Maps each modulus to the entries of the powers modulo it.
+     */
+    private final Map<Long, List<long[]>> modularPowers = new HashMap<>();
+    
+    /**
+     * The exact entries of the powers. A {@code null} entry stands for zero.
+     */
+    private final List<BigInteger[]> bigIntegerPowers = new ArrayList<>();
+    
+    TransitionMatrix(StateGraph graph) {
+        GameParameters gameParameters = graph.getGameParameters();
+        StateCodec codec = new StateCodec(gameParameters);
+        int numberOfNodes = graph.getNumberOfNodes();
+        this.size = numberOfNodes + 1;
+        this.sinkIndex = numberOfNodes;
+        this.sourceIndex =
+                graph.getNodeIndex(
+                        codec.encode(
+                                gameParameters.getTotalNumberOfMissionaries(),
+                                gameParameters.getTotalNumberOfCannibals(),
+                                BoatLocation.SOURCE_RIVER_BANK));
+        this.targetIndex =
+                graph.getNodeIndex(
+                        codec.encode(0, 0, BoatLocation.TARGET_RIVER_BANK));
+        
+        int[] offsets = new int[size + 1];
+        int[] columns = new int[graph.getNumberOfArcs() + 2];
+        int numberOfEntries = 0;
+        
+        for (int i = 0; i < numberOfNodes; i++) {
+            offsets[i] = numberOfEntries;
+            
+            if (i == targetIndex) {
+                columns[numberOfEntries++] = sinkIndex;
+                continue;
+            }
+            
+            int rowStart = numberOfEntries;
+            
+            for (int arc = graph.getOffset(i);
+                    arc < graph.getOffset(i + 1);
+                    arc++) {
+                columns[numberOfEntries++] =
+                        graph.getNodeIndex(graph.getNeighborCode(arc));
+            }
+            
+            Arrays.sort(columns, rowStart, numberOfEntries);
+        }
+        
+        offsets[sinkIndex] = numberOfEntries;
+        columns[numberOfEntries++] = sinkIndex;
+        offsets[size] = numberOfEntries;
+        patterns.add(new Pattern(offsets,
+                                 Arrays.copyOf(columns, numberOfEntries)));
+    }
+    
+    static TransitionMatrix build(GameParameters gameParameters) {
+        return new TransitionMatrix(StateGraph.build(gameParameters));
+    }
+    
+    /**
+     * Counts the crossing sequences of exactly {@code length} crossings that
+     * lead from the source state to the target state, modulo
+     * {@code modulus}.
+     *
+     * @param length  the number of crossings.
+     * @param modulus the modulus.
+     * @return the number of sequences modulo {@code modulus}.
+     */
+    synchronized long countPaths(long length, long modulus) {
+        checkLength(length);
+        checkModulus(modulus);
+        return targetIndex < 0 ?
+               0L :
+               countWalks(length, modulus)[targetIndex];
+    }
+    
+    /**
+     * Counts the crossing sequences of at most {@code length} crossings that
+     * lead from the source state to the target state, modulo
+     * {@code modulus}.
+     *
+     * @param length  the maximum number of crossings.
+     * @param modulus the modulus.
+     * @return the number of sequences modulo {@code modulus}.
+     */
+    synchronized long countPathsAtMost(long length, long modulus) {
+        checkLength(length);
+        checkModulus(modulus);
+        
+        if (length == Long.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "The length is too large. Must be at most " +
+                    (Long.MAX_VALUE - 1) + ".");
+        }
+        
+        return targetIndex < 0 ?
+               0L :
+               countWalks(length + 1, modulus)[sinkIndex];
+    }
+    
+    /**
+     * Counts the crossing sequences of exactly {@code length} crossings that
+     * lead from the source state to the target state.
+     *
+     * @param length the number of crossings.
+     * @return the number of sequences.
+     */
+    synchronized BigInteger countPaths(long length) {
+        checkLength(length);
+        return targetIndex < 0 ?
+               BigInteger.ZERO :
+               valueOf(countWalks(length)[targetIndex]);
+    }
+    
+    /**
+     * Counts the crossing sequences of at most {@code length} crossings that
+     * lead from the source state to the target state.
+     *
+     * @param length the maximum number of crossings.
+     * @return the number of sequences.
+     */
+    synchronized BigInteger countPathsAtMost(long length) {
+        checkLength(length);
+        
+        if (length == Long.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "The length is too large. Must be at most " +
+                    (Long.MAX_VALUE - 1) + ".");
+        }
+        
+        return targetIndex < 0 ?
+               BigInteger.ZERO :
+               valueOf(countWalks(length + 1)[sinkIndex]);
+    }
+    
+    /**
+     * Computes the source row of {@code A^length} modulo {@code modulus}.
+     */
+    private long[] countWalks(long length, long modulus) {
+        long[] vector = new long[size];
+        vector[sourceIndex] = 1L % modulus;
+        
+        for (int bit = 0; (length >>> bit) != 0L; bit++) {
+            if (((length >>> bit) & 1L) == 0L) {
+                continue;
+            }
+            
+            Pattern pattern = getPattern(bit);
+            long[] values = getModularPower(bit, modulus);
+            long[] product = new long[size];
+            
+            for (int i = 0; i < size; i++) {
+                long x = vector[i];
+                
+                if (x == 0L) {
+                    continue;
+                }
+                
+                for (int entry = pattern.offsets[i];
+                        entry < pattern.offsets[i + 1];
+                        entry++) {
+                    int column = pattern.columns[entry];
+                    product[column] =
+                            (product[column] + x * values[entry]) % modulus;
+                }
+            }
+            
+            vector = product;
+        }
+        
+        return vector;
+    }
+    
+    /**
+     * Computes the source row of {@code A^length}.
+     */
+    private BigInteger[] countWalks(long length) {
+        BigInteger[] vector = new BigInteger[size];
+        vector[sourceIndex] = BigInteger.ONE;
+        
+        for (int bit = 0; (length >>> bit) != 0L; bit++) {
+            if (((length >>> bit) & 1L) == 0L) {
+                continue;
+            }
+            
+            Pattern pattern = getPattern(bit);
+            BigInteger[] values = getBigIntegerPower(bit);
+            BigInteger[] product = new BigInteger[size];
+            
+            for (int i = 0; i < size; i++) {
+                BigInteger x = vector[i];
+                
+                if (x == null) {
+                    continue;
+                }
+                
+                for (int entry = pattern.offsets[i];
+                        entry < pattern.offsets[i + 1];
+                        entry++) {
+                    if (values[entry] != null) {
+                        int column = pattern.columns[entry];
+                        product[column] =
+                                add(product[column],
+                                    x.multiply(values[entry]));
+                    }
+                }
+            }
+            
+            vector = product;
+        }
+        
+        return vector;
+    }
+    
+    private Pattern getPattern(int bit) {
+        while (patterns.size() <= bit) {
+            patterns.add(patterns.get(patterns.size() - 1).square());
+        }
+        
+        return patterns.get(bit);
+    }
+    
+    private long[] getModularPower(int bit, long modulus) {
+        List<long[]> powers =
+                modularPowers.computeIfAbsent(modulus, m -> new ArrayList<>());
+        
+        if (powers.isEmpty()) {
+            long[] values = new long[patterns.get(0).columns.length];
+            Arrays.fill(values, 1L % modulus);
+            powers.add(values);
+        }
+        
+        while (powers.size() <= bit) {
+            int index = powers.size() - 1;
+            Pattern pattern = getPattern(index);
+            Pattern squarePattern = getPattern(index + 1);
+            long[] values = powers.get(index);
+            long[] squareValues = new long[squarePattern.columns.length];
+            long[] accumulator = new long[size];
+            
+            for (int i = 0; i < size; i++) {
+                for (int entry = pattern.offsets[i];
+                        entry < pattern.offsets[i + 1];
+                        entry++) {
+                    long x = values[entry];
+                    
+                    if (x == 0L) {
+                        continue;
+                    }
+                    
+                    int k = pattern.columns[entry];
+                    
+                    for (int entry2 = pattern.offsets[k];
+                            entry2 < pattern.offsets[k + 1];
+                            entry2++) {
+                        int column = pattern.columns[entry2];
+                        accumulator[column] =
+                                (accumulator[column] + x * values[entry2]) %
+                                modulus;
+                    }
+                }
+                
+                for (int entry = squarePattern.offsets[i];
+                        entry < squarePattern.offsets[i + 1];
+                        entry++) {
+                    int column = squarePattern.columns[entry];
+                    squareValues[entry] = accumulator[column];
+                    accumulator[column] = 0L;
+                }
+            }
+            
+            powers.add(squareValues);
+        }
+        
+        return powers.get(bit);
+    }
+    
+    private BigInteger[] getBigIntegerPower(int bit) {
+        if (bigIntegerPowers.isEmpty()) {
+            BigInteger[] values =
+                    new BigInteger[patterns.get(0).columns.length];
+            Arrays.fill(values, BigInteger.ONE);
+            bigIntegerPowers.add(values);
+        }
+        
+        while (bigIntegerPowers.size() <= bit) {
+            int index = bigIntegerPowers.size() - 1;
+            Pattern pattern = getPattern(index);
+            Pattern squarePattern = getPattern(index + 1);
+            BigInteger[] values = bigIntegerPowers.get(index);
+            BigInteger[] squareValues =
+                    new BigInteger[squarePattern.columns.length];
+            BigInteger[] accumulator = new BigInteger[size];
+            
+            for (int i = 0; i < size; i++) {
+                for (int entry = pattern.offsets[i];
+                        entry < pattern.offsets[i + 1];
+                        entry++) {
+                    BigInteger x = values[entry];
+                    
+                    if (x == null) {
+                        continue;
+                    }
+                    
+                    int k = pattern.columns[entry];
+                    
+                    for (int entry2 = pattern.offsets[k];
+                            entry2 < pattern.offsets[k + 1];
+                            entry2++) {
+                        if (values[entry2] != null) {
+                            int column = pattern.columns[entry2];
+                            accumulator[column] =
+                                    add(accumulator[column],
+                                        x.multiply(values[entry2]));
+                        }
+                    }
+                }
+                
+                for (int entry = squarePattern.offsets[i];
+                        entry < squarePattern.offsets[i + 1];
+                        entry++) {
+                    int column = squarePattern.columns[entry];
+                    squareValues[entry] = accumulator[column];
+                    accumulator[column] = null;
+                }
+            }
+            
+            bigIntegerPowers.add(squareValues);
+        }
+        
+        return bigIntegerPowers.get(bit);
+    }
+    
+    private static BigInteger add(BigInteger a, BigInteger b) {
+        return a == null ? b : a.add(b);
+    }
+    
+    private static BigInteger valueOf(BigInteger value) {
+        return value == null ? BigInteger.ZERO : value;
+    }
+    
+    private static void checkLength(long length) {
+        if (length < 0L) {
+            throw new IllegalArgumentException(
+                    "The length is too small. Must be at least 0.");
+        }
+    }
+    
+    private static void checkModulus(long modulus) {
+        if (modulus < 1L) {
+            throw new IllegalArgumentException(
+                    "The modulus is too small. Must be at least 1.");
+        }
+        
+        if (modulus > MAXIMUM_MODULUS) {
+            throw new IllegalArgumentException(
+                    "The modulus is too large. Must be at most " +
+                    MAXIMUM_MODULUS + ".");
+        }
+    }
+    
+    /**
+     * This class holds the positions of the nonzero entries of a matrix in
+     * row-compressed form, the columns of each row in ascending order.
+     */
+    private static final class Pattern {
+    
+        final int[] offsets;
+        final int[] columns;
+        
+        Pattern(int[] offsets, int[] columns) {
+            this.offsets = offsets;
+            this.columns = columns;
+        }
+        
+        Pattern square() {
+            int size = offsets.length - 1;
+            int[] squareOffsets = new int[size + 1];
+            int[] squareColumns = new int[Math.max(columns.length, 16)];
+            int[] marks = new int[size];
+            int numberOfEntries = 0;
+            
+            for (int i = 0; i < size; i++) {
+                squareOffsets[i] = numberOfEntries;
+                int rowStart = numberOfEntries;
+                
+                for (int entry = offsets[i];
+                        entry < offsets[i + 1];
+                        entry++) {
+                    int k = columns[entry];
+                    
+                    for (int entry2 = offsets[k];
+                            entry2 < offsets[k + 1];
+                            entry2++) {
+                        int column = columns[entry2];
+                        
+                        if (marks[column] == i + 1) {
+                            continue;
+                        }
+                        
+                        marks[column] = i + 1;
+                        
+                        if (numberOfEntries == squareColumns.length) {
+                            long capacity = 2L * numberOfEntries;
+                            
+                            if (capacity > Integer.MAX_VALUE - 8) {
+                                throw new IllegalStateException(
+                                        "The matrix power is too dense.");
+                            }
+                            
+                            squareColumns = Arrays.copyOf(squareColumns,
+                                                          (int) capacity);
+                        }
+                        
+                        squareColumns[numberOfEntries++] = column;
+                    }
+                }
+                
+                Arrays.sort(squareColumns, rowStart, numberOfEntries);
+            }
+            
+            squareOffsets[size] = numberOfEntries;
+            return new Pattern(squareOffsets,
+                               Arrays.copyOf(squareColumns, numberOfEntries));
+        }
+    }
+}
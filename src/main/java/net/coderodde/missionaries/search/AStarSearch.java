@@ -0,0 +1,158 @@
+package net.coderodde.missionaries.search;
+
+import java.util.Arrays;
+
+/**
+ * This class implements A* search with unit arc costs over a
+ * {@link SearchGraph}. The heuristic is assumed consistent, so each node is
+ * expanded at most once. Among the open nodes with equal {@code f}-value, the
+ * deepest one is expanded first, which drives the search towards the target
+ * along the last {@code f}-layer instead of widening it.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public final class AStarSearch {
+
+    /**
+     * Searches for a shortest path from {@code source} to {@code target}.
+     *
+     * @param graph     the graph to search.
+     * @param heuristic the consistent estimate of the distance to
+     *                  {@code target}.
+     * @param source    the id of the source node.
+     * @param target    the id of the target node.
+     * @return the node ids of the shortest path, starting from the source.
+     * @throws IllegalStateException if the target is not reachable.
+     */
+    public static int[] search(SearchGraph graph,
+                               HeuristicFunction heuristic,
+                               int source,
+                               int target) {
+        SearchSupport.checkNode(graph, source, "source");
+        SearchSupport.checkNode(graph, target, "target");
+        
+        int[] distances = new int[graph.getNumberOfNodes()];
+        int[] parents = new int[graph.getNumberOfNodes()];
+        boolean[] closed = new boolean[graph.getNumberOfNodes()];
+        int[] successors = new int[graph.getMaximumDegree()];
+        OpenHeap open = new OpenHeap();
+        
+        Arrays.fill(distances, SearchSupport.UNVISITED);
+        distances[source] = 0;
+        parents[source] = SearchSupport.NO_PARENT;
+        open.add(source, heuristic.estimate(source), 0);
+        
+        while (open.size > 0) {
+            int current = open.remove();
+            
+            if (closed[current]) {
+                // A stale heap entry.
+                continue;
+            }
+            
+            if (current == target) {
+                return SearchSupport.tracebackPath(target, parents);
+            }
+            
+            closed[current] = true;
+            int childDistance = distances[current] + 1;
+            int numberOfSuccessors = graph.expand(current, successors);
+            
+            for (int i = 0; i < numberOfSuccessors; i++) {
+                int child = successors[i];
+                
+                if (closed[child]) {
+                    continue;
+                }
+                
+                if (distances[child] != SearchSupport.UNVISITED &&
+                        distances[child] <= childDistance) {
+                    continue;
+                }
+                
+                distances[child] = childDistance;
+                parents[child] = current;
+                open.add(child,
+                         childDistance + heuristic.estimate(child),
+                         childDistance);
+            }
+        }
+        
+        throw new IllegalStateException();
+    }
+    
+    private AStarSearch() {
+    
+    }
+    
+    /**
+     * This class implements a binary minimum heap of node ids. The key of an
+     * entry packs its {@code f}-value into the high half and the complement
+     * of its {@code g}-value into the low half, so that ties on {@code f} are
+     * broken in favor of the deeper node.
+     */
+    private static final class OpenHeap {
+    
+        long[] keys = new long[16];
+        int[] nodes = new int[16];
+        int size;
+        
+        void add(int node, int f, int g) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, 2 * size);
+                nodes = Arrays.copyOf(nodes, 2 * size);
+            }
+            
+            long key = ((long) f << 32) | (Integer.MAX_VALUE - g);
+            int index = size++;
+            
+            while (index > 0) {
+                int parentIndex = (index - 1) >>> 1;
+                
+                if (keys[parentIndex] <= key) {
+                    break;
+                }
+                
+                keys[index] = keys[parentIndex];
+                nodes[index] = nodes[parentIndex];
+                index = parentIndex;
+            }
+            
+            keys[index] = key;
+            nodes[index] = node;
+        }
+        
+        int remove() {
+            int topNode = nodes[0];
+            long key = keys[--size];
+            int node = nodes[size];
+            int index = 0;
+            
+            while (true) {
+                int childIndex = 2 * index + 1;
+                
+                if (childIndex >= size) {
+                    break;
+                }
+                
+                if (childIndex + 1 < size &&
+                        keys[childIndex + 1] < keys[childIndex]) {
+                    childIndex++;
+                }
+                
+                if (key <= keys[childIndex]) {
+                    break;
+                }
+                
+                keys[index] = keys[childIndex];
+                nodes[index] = nodes[childIndex];
+                index = childIndex;
+            }
+            
+            keys[index] = key;
+            nodes[index] = node;
+            return topNode;
+        }
+    }
+}
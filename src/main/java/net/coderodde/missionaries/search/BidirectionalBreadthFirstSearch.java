@@ -0,0 +1,154 @@
+package net.coderodde.missionaries.search;
+
+import java.util.Arrays;
+
+/**
+ * This class implements a bidirectional breadth-first search over a
+ * {@link SearchGraph}. The forward search follows
+ * {@link SearchGraph#expand(int, int[])} from the source, and the backward one
+ * follows {@link SearchGraph#expandBackwards(int, int[])} from the target.
+ * Each round expands the whole layer of the smaller frontier, and the search
+ * stops after the first layer in which the two search trees touch; the
+ * shortest of the arcs connecting them in that layer yields an optimal path.
+ * The source is always expanded first, so the backward expansion need not
+ * report the arcs leaving the source.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public final class BidirectionalBreadthFirstSearch {
+
+    /**
+     * Searches for a shortest path from {@code source} to {@code target}.
+     *
+     * @param graph  the graph to search.
+     * @param source the id of the source node.
+     * @param target the id of the target node.
+     * @return the node ids of the shortest path, starting from the source.
+     * @throws IllegalStateException if the target is not reachable.
+     */
+    public static int[] search(SearchGraph graph, int source, int target) {
+        SearchSupport.checkNode(graph, source, "source");
+        SearchSupport.checkNode(graph, target, "target");
+        
+        if (source == target) {
+            return new int[]{ source };
+        }
+        
+        int numberOfNodes = graph.getNumberOfNodes();
+        int[] forwardParents = new int[numberOfNodes];
+        int[] backwardParents = new int[numberOfNodes];
+        int[] forwardDistances = new int[numberOfNodes];
+        int[] backwardDistances = new int[numberOfNodes];
+        int[] neighbors = new int[graph.getMaximumDegree()];
+        
+        Arrays.fill(forwardDistances, SearchSupport.UNVISITED);
+        Arrays.fill(backwardDistances, SearchSupport.UNVISITED);
+        forwardParents[source] = SearchSupport.NO_PARENT;
+        backwardParents[target] = SearchSupport.NO_PARENT;
+        forwardDistances[source] = 0;
+        backwardDistances[target] = 0;
+        
+        int[] forwardFrontier = new int[numberOfNodes];
+        int[] backwardFrontier = new int[numberOfNodes];
+        int[] nextFrontier = new int[numberOfNodes];
+        int forwardSize = 1;
+        int backwardSize = 1;
+        forwardFrontier[0] = source;
+        backwardFrontier[0] = target;
+        
+        // The arc (touchFrom, touchTo) connects the forward search tree to
+        // the backward one.
+        int bestLength = Integer.MAX_VALUE;
+        int touchFrom = SearchSupport.UNVISITED;
+        int touchTo = SearchSupport.UNVISITED;
+        
+        while (forwardSize > 0 && backwardSize > 0) {
+            boolean forward = forwardSize <= backwardSize;
+            int[] frontier = forward ? forwardFrontier : backwardFrontier;
+            int frontierSize = forward ? forwardSize : backwardSize;
+            int[] parents = forward ? forwardParents : backwardParents;
+            int[] distances = forward ? forwardDistances : backwardDistances;
+            int[] oppositeDistances =
+                    forward ? backwardDistances : forwardDistances;
+            int nextFrontierSize = 0;
+            
+            for (int i = 0; i < frontierSize; i++) {
+                int current = frontier[i];
+                int numberOfNeighbors =
+                        forward ?
+                        graph.expand(current, neighbors) :
+                        graph.expandBackwards(current, neighbors);
+                
+                for (int j = 0; j < numberOfNeighbors; j++) {
+                    int child = neighbors[j];
+                    
+                    if (oppositeDistances[child] != SearchSupport.UNVISITED) {
+                        int length = distances[current] + 1 +
+                                     oppositeDistances[child];
+                        
+                        if (bestLength > length) {
+                            bestLength = length;
+                            touchFrom = forward ? current : child;
+                            touchTo = forward ? child : current;
+                        }
+                    }
+                    
+                    if (distances[child] == SearchSupport.UNVISITED) {
+                        distances[child] = distances[current] + 1;
+                        parents[child] = current;
+                        nextFrontier[nextFrontierSize++] = child;
+                    }
+                }
+            }
+            
+            if (bestLength != Integer.MAX_VALUE) {
+                return stitchPath(touchFrom,
+                                  touchTo,
+                                  forwardParents,
+                                  backwardParents);
+            }
+            
+            if (forward) {
+                forwardFrontier = nextFrontier;
+                forwardSize = nextFrontierSize;
+            } else {
+                backwardFrontier = nextFrontier;
+                backwardSize = nextFrontierSize;
+            }
+            
+            nextFrontier = frontier;
+        }
+        
+        throw new IllegalStateException();
+    }
+    
+    private static int[] stitchPath(int touchFrom,
+                                    int touchTo,
+                                    int[] forwardParents,
+                                    int[] backwardParents) {
+        int[] head = SearchSupport.tracebackPath(touchFrom, forwardParents);
+        int tailLength = 0;
+        
+        for (int current = touchTo;
+                current != SearchSupport.NO_PARENT;
+                current = backwardParents[current]) {
+            tailLength++;
+        }
+        
+        int[] path = Arrays.copyOf(head, head.length + tailLength);
+        int index = head.length;
+        
+        for (int current = touchTo;
+                current != SearchSupport.NO_PARENT;
+                current = backwardParents[current]) {
+            path[index++] = current;
+        }
+        
+        return path;
+    }
+    
+    private BidirectionalBreadthFirstSearch() {
+    
+    }
+}
@@ -0,0 +1,63 @@
+package net.coderodde.missionaries.search;
+
+import java.util.Arrays;
+
+/**
+ * This class implements a breadth-first search over a {@link SearchGraph}. The
+ * parent links and the queue are dense {@code int} arrays indexed by node id,
+ * allocated once per search.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public final class BreadthFirstSearch {
+
+    /**
+     * Searches for a shortest path from {@code source} to {@code target}.
+     *
+     * @param graph  the graph to search.
+     * @param source the id of the source node.
+     * @param target the id of the target node.
+     * @return the node ids of the shortest path, starting from the source.
+     * @throws IllegalStateException if the target is not reachable.
+     */
+    public static int[] search(SearchGraph graph, int source, int target) {
+        SearchSupport.checkNode(graph, source, "source");
+        SearchSupport.checkNode(graph, target, "target");
+        
+        int[] parents = new int[graph.getNumberOfNodes()];
+        int[] queue = new int[graph.getNumberOfNodes()];
+        int[] successors = new int[graph.getMaximumDegree()];
+        int head = 0;
+        int tail = 0;
+        
+        Arrays.fill(parents, SearchSupport.UNVISITED);
+        parents[source] = SearchSupport.NO_PARENT;
+        queue[tail++] = source;
+        
+        while (head < tail) {
+            int current = queue[head++];
+            
+            if (current == target) {
+                return SearchSupport.tracebackPath(target, parents);
+            }
+            
+            int numberOfSuccessors = graph.expand(current, successors);
+            
+            for (int i = 0; i < numberOfSuccessors; i++) {
+                int child = successors[i];
+                
+                if (parents[child] == SearchSupport.UNVISITED) {
+                    parents[child] = current;
+                    queue[tail++] = child;
+                }
+            }
+        }
+        
+        throw new IllegalStateException();
+    }
+    
+    private BreadthFirstSearch() {
+    
+    }
+}
@@ -0,0 +1,20 @@
+package net.coderodde.missionaries.search;
+
+/**
+ * This interface estimates the distance from a node to the target of an
+ * {@link AStarSearch}. The estimate must be consistent: it may not exceed the
+ * estimate of any successor by more than one, and must be zero at the target.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public interface HeuristicFunction {
+
+    /**
+     * Estimates the number of arcs from {@code node} to the target.
+     *
+     * @param node the id of the node.
+     * @return a lower bound on the distance to the target.
+     */
+    int estimate(int node);
+}
@@ -0,0 +1,102 @@
+package net.coderodde.missionaries.search;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * This class counts the shortest paths between two nodes of a
+ * {@link SearchGraph} without building any of them. It runs a single
+ * breadth-first search and accumulates, for each node, the sum of the path
+ * counts of its predecessors on the previous layer. The counts are kept in a
+ * {@code long} array and moved to {@link BigInteger}s once they overflow.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public final class PathCounter {
+
+    /**
+     * Counts the shortest paths from {@code source} to {@code target} in
+     * {@code O(V + E)} time.
+     *
+     * @param graph  the graph to search.
+     * @param source the id of the source node.
+     * @param target the id of the target node.
+     * @return the number of shortest paths, or zero if {@code target} is not
+     *         reachable from {@code source}.
+     */
+    public static BigInteger count(SearchGraph graph, int source, int target) {
+        SearchSupport.checkNode(graph, source, "source");
+        SearchSupport.checkNode(graph, target, "target");
+        
+        int[] distances = new int[graph.getNumberOfNodes()];
+        long[] counts = new long[graph.getNumberOfNodes()];
+        BigInteger[] bigCounts = null;
+        int[] queue = new int[graph.getNumberOfNodes()];
+        int[] successors = new int[graph.getMaximumDegree()];
+        int head = 0;
+        int tail = 0;
+        
+        Arrays.fill(distances, SearchSupport.UNVISITED);
+        distances[source] = 0;
+        counts[source] = 1L;
+        queue[tail++] = source;
+        
+        while (head < tail) {
+            int current = queue[head++];
+            
+            if (distances[target] != SearchSupport.UNVISITED &&
+                    distances[current] >= distances[target]) {
+                // All the predecessors of the target are processed.
+                break;
+            }
+            
+            int childDistance = distances[current] + 1;
+            int numberOfSuccessors = graph.expand(current, successors);
+            
+            for (int i = 0; i < numberOfSuccessors; i++) {
+                int child = successors[i];
+                
+                if (distances[child] == SearchSupport.UNVISITED) {
+                    distances[child] = childDistance;
+                    queue[tail++] = child;
+                } else if (distances[child] != childDistance) {
+                    continue;
+                }
+                
+                if (bigCounts == null) {
+                    long sum = counts[child] + counts[current];
+                    
+                    if (sum >= 0L) {
+                        counts[child] = sum;
+                        continue;
+                    }
+                    
+                    bigCounts = toBigIntegers(counts);
+                }
+                
+                bigCounts[child] = bigCounts[child].add(bigCounts[current]);
+            }
+        }
+        
+        if (bigCounts != null) {
+            return bigCounts[target];
+        }
+        
+        return BigInteger.valueOf(counts[target]);
+    }
+    
+    private static BigInteger[] toBigIntegers(long[] counts) {
+        BigInteger[] bigCounts = new BigInteger[counts.length];
+        
+        for (int i = 0; i < counts.length; i++) {
+            bigCounts[i] = BigInteger.valueOf(counts[i]);
+        }
+        
+        return bigCounts;
+    }
+    
+    private PathCounter() {
+    
+    }
+}
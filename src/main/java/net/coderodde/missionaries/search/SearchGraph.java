@@ -0,0 +1,56 @@
+package net.coderodde.missionaries.search;
+
+/**
+ * This interface adapts a graph to the search algorithms of this package. The
+ * nodes are identified by dense {@code int} ids in
+ * {@code [0, getNumberOfNodes())}, so the algorithms keep their per-node data
+ * in flat arrays, and the neighbors of a node are written into a buffer
+ * supplied by the caller, so expanding a node allocates nothing.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public interface SearchGraph {
+
+    /**
+     * Returns the number of node ids.
+     *
+     * @return the number of node ids.
+     */
+    int getNumberOfNodes();
+    
+    /**
+     * Returns the maximum number of successors or predecessors of a node,
+     * that is, the smallest buffer size the expansion methods accept.
+     *
+     * @return the maximum degree of a node.
+     */
+    int getMaximumDegree();
+    
+    /**
+     * Writes the ids of the successors of {@code node} into
+     * {@code successors}.
+     *
+     * @param node       the id of the node to expand.
+     * @param successors the output buffer. Must have room for at least
+     *                   {@link #getMaximumDegree()} ids.
+     * @return the number of ids written.
+     */
+    int expand(int node, int[] successors);
+    
+    /**
+     * Writes the ids of the predecessors of {@code node} into
+     * {@code predecessors}. The backward direction of
+     * {@link BidirectionalBreadthFirstSearch} is the only user of this method.
+     * The default implementation suits undirected graphs, where the
+     * predecessors are the successors.
+     *
+     * @param node         the id of the node to expand backwards.
+     * @param predecessors the output buffer. Must have room for at least
+     *                     {@link #getMaximumDegree()} ids.
+     * @return the number of ids written.
+     */
+    default int expandBackwards(int node, int[] predecessors) {
+        return expand(node, predecessors);
+    }
+}
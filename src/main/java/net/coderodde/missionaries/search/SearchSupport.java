@@ -0,0 +1,80 @@
+package net.coderodde.missionaries.search;
+
+import java.util.Arrays;
+
+/**
+ * This class holds the bookkeeping shared by the search algorithms.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class SearchSupport {
+
+    /**
+     * Marks the parent of the source node.
+     */
+    static final int NO_PARENT = -1;
+    
+    /**
+     * Marks the nodes not yet reached.
+     */
+    static final int UNVISITED = -2;
+    
+    /**
+     * Makes sure that {@code node} is a valid node id of {@code graph}.
+     *
+     * @param graph the graph.
+     * @param node  the node id to check.
+     * @param name  the name of the node in the error message.
+     * @throws IllegalArgumentException if the node id is out of range.
+     */
+    static void checkNode(SearchGraph graph, int node, String name) {
+        if (node < 0) {
+            throw new IllegalArgumentException(
+                    "The " + name + " node (" + node + ") is too small. " +
+                    "Must be at least 0.");
+        }
+        
+        if (node >= graph.getNumberOfNodes()) {
+            throw new IllegalArgumentException(
+                    "The " + name + " node (" + node + ") is too large. " +
+                    "Must be at most " + (graph.getNumberOfNodes() - 1) +
+                    ".");
+        }
+    }
+    
+    /**
+     * Follows the parent links from {@code node} back to the node whose
+     * parent is {@link #NO_PARENT}.
+     *
+     * @param node    the last node of the path.
+     * @param parents the parent links.
+     * @return the node ids of the path, starting from its first node.
+     */
+    static int[] tracebackPath(int node, int[] parents) {
+        int[] path = new int[16];
+        int length = 0;
+        
+        for (int current = node;
+                current != NO_PARENT;
+                current = parents[current]) {
+            if (length == path.length) {
+                path = Arrays.copyOf(path, 2 * length);
+            }
+            
+            path[length++] = current;
+        }
+        
+        for (int i = 0, j = length - 1; i < j; i++, j--) {
+            int tmp = path[i];
+            path[i] = path[j];
+            path[j] = tmp;
+        }
+        
+        return Arrays.copyOf(path, length);
+    }
+    
+    private SearchSupport() {
+    
+    }
+}
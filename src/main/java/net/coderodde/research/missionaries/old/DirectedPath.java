@@ -1,12 +1,42 @@
 package net.coderodde.research.missionaries.old;
 
+import java.util.List;
+import net.coderodde.missionaries.search.BidirectionalBreadthFirstSearch;
+
 /**
- * This class implements an oriented sequence finder, that is, it is searching 
- * for shortest paths starting from the source node to the target node. 
- * 
+ * This class implements an oriented sequence finder, that is, it is searching
+ * for shortest paths starting from the source node to the target node. The
+ * nodes reachable from the source are indexed by an {@link IndexedGraph} and
+ * searched by a {@link BidirectionalBreadthFirstSearch}.
+ *
  * @author Rodion "rodde" Efremov
  * @version 1.6
  */
 public final class DirectedPath {
+
+    /**
+     * Searches for a shortest path from {@code source} to {@code target}.
+     *
+     * @param <N>    the node type.
+     * @param source the source node.
+     * @param target the target node.
+     * @return the nodes of the shortest path, starting from the source.
+     * @throws IllegalStateException if the target is not reachable.
+     */
+    public static <N extends AbstractUndirectedGraphNode<N>>
+        List<N> search(N source, N target) {
+        IndexedGraph<N> graph = new IndexedGraph<>(source);
+        int targetId = graph.getNodeId(target);
+        
+        if (targetId == -1) {
+            throw new IllegalStateException();
+        }
+        
+        return graph.toNodes(
+                BidirectionalBreadthFirstSearch.search(graph, 0, targetId));
+    }
+    
+    private DirectedPath() {
     
+    }
 }
@@ -63,19 +63,52 @@ public final class GameConfiguration {
         return totalNumberOfCannibals;
     }
     
+    public int getBoatCapacity() {
+        return boatCapacity;
+    }
+    
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 89 * hash + totalNumberOfMissionaries;
+        hash = 89 * hash + totalNumberOfCannibals;
+        hash = 89 * hash + boatCapacity;
+        return hash;
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        
+        if (obj == null) {
+            return false;
+        }
+        
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        
+        GameConfiguration other = (GameConfiguration) obj;
+        return totalNumberOfMissionaries == other.totalNumberOfMissionaries &&
+               totalNumberOfCannibals == other.totalNumberOfCannibals &&
+               boatCapacity == other.boatCapacity;
+    }
+    
     /**
      * Makes sure that the given total number of missionaries is not too small.
      * 
-     * @param totalNumberOfMisssionaries the number of missionaries to check.
+     * @param totalNumberOfMissionaries the number of missionaries to check.
      * @throws {@link java.lang.IllegalArgumentException} in case the given
      *         number of missionaries is too small.
      */
     private final void checkTotalNumberOfMissionaries(
-            final int totalNumberOfMisssionaries) {
+            final int totalNumberOfMissionaries) {
         if (totalNumberOfMissionaries < MINIMUM_TOTAL_NUMBER_OF_MISSIONARIES) {
             throw new IllegalArgumentException(
                     "Input total number of missionaries (" +
-                    totalNumberOfMisssionaries + 
+                    totalNumberOfMissionaries + 
                     ") is too small. Must be at least " + 
                     MINIMUM_TOTAL_NUMBER_OF_MISSIONARIES + ".");
         }
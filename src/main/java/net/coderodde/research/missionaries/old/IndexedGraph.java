@@ -0,0 +1,205 @@
+package net.coderodde.research.missionaries.old;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.coderodde.missionaries.search.SearchGraph;
+
+/**
+ * This class adapts the nodes reachable from a root node to the search
+ * algorithms of the {@code net.coderodde.missionaries.search} package. The
+ * constructor walks the graph once through
+ * {@link AbstractUndirectedGraphNode#children()}, numbers the nodes in
+ * breadth-first order and stores the arcs in both directions as flat
+ * {@code int} arrays, so that the searches run without touching the node
+ * objects. The nodes must implement {@code equals} and {@code hashCode}.
+ *
+ * @param <N> the node type.
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public final class IndexedGraph<N extends AbstractUndirectedGraphNode<N>>
+        implements SearchGraph {
+    
+    /**
+     * The nodes by id.
+     */
+    private final List<N> nodes = new ArrayList<>();
+    
+    /**
+     * The ids by node.
+     */
+    private final Map<N, Integer> nodeIds = new HashMap<>();
+    
+    /**
+     * The successors of node {@code i} are
+     * {@code successors[successorOffsets[i]], ...,
+     * successors[successorOffsets[i + 1] - 1]}.
+     */
+    private final int[] successorOffsets;
+    
+    /**
+     * The successor ids of all the nodes, grouped by node.
+     */
+    private final int[] successors;
+    
+    /**
+     * The offsets of the predecessor groups, laid out like
+     * {@link #successorOffsets}.
+     */
+    private final int[] predecessorOffsets;
+    
+    /**
+     * The predecessor ids of all the nodes, grouped by node.
+     */
+    private final int[] predecessors;
+    
+    /**
+     * The maximum number of successors or predecessors of a node.
+     */
+    private final int maximumDegree;
+    
+    public IndexedGraph(N root) {
+        int[] arcTails = new int[16];
+        int[] arcHeads = new int[16];
+        int numberOfArcs = 0;
+        
+        nodes.add(root);
+        nodeIds.put(root, 0);
+        
+        for (int tail = 0; tail < nodes.size(); tail++) {
+            for (N child : nodes.get(tail).children()) {
+                Integer head = nodeIds.get(child);
+                
+                if (head == null) {
+                    head = nodes.size();
+                    nodes.add(child);
+                    nodeIds.put(child, head);
+                }
+                
+                if (numberOfArcs == arcTails.length) {
+                    arcTails = Arrays.copyOf(arcTails, 2 * numberOfArcs);
+                    arcHeads = Arrays.copyOf(arcHeads, 2 * numberOfArcs);
+                }
+                
+                arcTails[numberOfArcs] = tail;
+                arcHeads[numberOfArcs] = head;
+                numberOfArcs++;
+            }
+        }
+        
+        this.successorOffsets = new int[nodes.size() + 1];
+        this.successors = new int[numberOfArcs];
+        this.predecessorOffsets = new int[nodes.size() + 1];
+        this.predecessors = new int[numberOfArcs];
+        
+        int maximumOutDegree = buildAdjacency(arcTails,
+                                              arcHeads,
+                                              numberOfArcs,
+                                              successorOffsets,
+                                              successors);
+        int maximumInDegree = buildAdjacency(arcHeads,
+                                             arcTails,
+                                             numberOfArcs,
+                                             predecessorOffsets,
+                                             predecessors);
+        
+        this.maximumDegree = Math.max(maximumOutDegree, maximumInDegree);
+    }
+    
+    @Override
+    public int getNumberOfNodes() {
+        return nodes.size();
+    }
+    
+    @Override
+    public int getMaximumDegree() {
+        return maximumDegree;
+    }
+    
+    @Override
+    public int expand(int node, int[] successors) {
+        int size = successorOffsets[node + 1] - successorOffsets[node];
+        System.arraycopy(this.successors,
+                         successorOffsets[node],
+                         successors,
+                         0,
+                         size);
+        return size;
+    }
+    
+    @Override
+    public int expandBackwards(int node, int[] predecessors) {
+        int size = predecessorOffsets[node + 1] - predecessorOffsets[node];
+        System.arraycopy(this.predecessors,
+                         predecessorOffsets[node],
+                         predecessors,
+                         0,
+                         size);
+        return size;
+    }
+    
+    /**
+     * Returns the id of a node.
+     *
+     * @param node the node.
+     * @return the id of the node, or -1 if it is not reachable from the root.
+     */
+    public int getNodeId(N node) {
+        Integer nodeId = nodeIds.get(node);
+        return nodeId == null ? -1 : nodeId;
+    }
+    
+    public N getNode(int nodeId) {
+        return nodes.get(nodeId);
+    }
+    
+    /**
+     * Converts a path of node ids to the corresponding nodes.
+     *
+     * @param path the node ids of a path.
+     * @return the nodes of the path.
+     */
+    public List<N> toNodes(int[] path) {
+        List<N> pathNodes = new ArrayList<>(path.length);
+        
+        for (int nodeId : path) {
+            pathNodes.add(nodes.get(nodeId));
+        }
+        
+        return pathNodes;
+    }
+    
+    /**
+     * Sorts the arcs by tail into an offset array and a head array.
+     *
+     * @return the maximum number of arcs sharing a tail.
+     */
+    private static int buildAdjacency(int[] arcTails,
+                                      int[] arcHeads,
+                                      int numberOfArcs,
+                                      int[] offsets,
+                                      int[] heads) {
+        for (int arc = 0; arc < numberOfArcs; arc++) {
+            offsets[arcTails[arc] + 1]++;
+        }
+        
+        int maximumDegree = 0;
+        
+        for (int i = 1; i < offsets.length; i++) {
+            maximumDegree = Math.max(maximumDegree, offsets[i]);
+            offsets[i] += offsets[i - 1];
+        }
+        
+        int[] cursors = Arrays.copyOf(offsets, offsets.length - 1);
+        
+        // A stable placement keeps the order of the children.
+        for (int arc = 0; arc < numberOfArcs; arc++) {
+            heads[cursors[arcTails[arc]]++] = arcHeads[arc];
+        }
+        
+        return maximumDegree;
+    }
+}
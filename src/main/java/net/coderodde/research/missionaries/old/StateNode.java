@@ -1,5 +1,6 @@
 package net.coderodde.research.missionaries.old;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
@@ -43,7 +44,7 @@ public final class StateNode implements AbstractUndirectedGraphNode<StateNode> {
     /**
      * Constructs a new state node representing a particular game state.
      * 
-     * @param numberOfMissionaries the number of cannibals at the source node.
+     * @param numberOfMissionaries the number of missionaries at the source bank.
      * @param numberOfCannibals    the number of cannibals at the source bank.
      * @param boatLocation         the boat location.
      * @param gameConfiguration    the game configuration object.
@@ -52,15 +53,42 @@ public final class StateNode implements AbstractUndirectedGraphNode<StateNode> {
                      final int numberOfCannibals,
                      final BoatLocation boatLocation,
                      final GameConfiguration gameConfiguration) {
-        checkNumberOfMissionaries(numberOfMissionaries);
-        checkNumberOfCannibals(numberOfCannibals);
         Objects.requireNonNull(boatLocation, "The boat location is null.");
         Objects.requireNonNull(gameConfiguration, 
                                "The game configuration object is null.");
+        // The bounds checks need the game configuration.
+        this.gameConfiguration    = gameConfiguration;
+        checkNumberOfMissionaries(numberOfMissionaries);
+        checkNumberOfCannibals(numberOfCannibals);
         this.numberOfMissionaries = numberOfMissionaries;
         this.numberOfCannibals    = numberOfCannibals;
         this.boatLocation         = boatLocation;
-        this.gameConfiguration    = gameConfiguration;
+    }
+    
+    public int getNumberOfMissionaries() {
+        return numberOfMissionaries;
+    }
+    
+    public int getNumberOfCannibals() {
+        return numberOfCannibals;
+    }
+    
+    public BoatLocation getBoatLocation() {
+        return boatLocation;
+    }
+    
+    public GameConfiguration getGameConfiguration() {
+        return gameConfiguration;
+    }
+    
+    /**
+     * Checks that neither of the banks has its missionaries outnumbered by the
+     * cannibals.
+     * 
+     * @return {@code true} if this state is safe.
+     */
+    public boolean isSafe() {
+        return isSafe(numberOfMissionaries, numberOfCannibals);
     }
     
     /**
@@ -103,13 +131,107 @@ public final class StateNode implements AbstractUndirectedGraphNode<StateNode> {
                     numberOfCannibals + 
                     "). Must be at most " + 
                     gameConfiguration.getTotalNumberOfCannibals() +
-                    ").");
+                    ".");
         }
     }
     
+    /**
+     * Returns all the safe states reachable from this state by a single boat
+     * trip, ordered by the number of missionaries and then by the number of
+     * cannibals in the boat.
+     * 
+     * @return the list of child states.
+     */
     @Override
     public List<StateNode> children() {
-        throw new UnsupportedOperationException("Not supported yet."); //To change body of generated methods, choose Tools | Templates.
+        List<StateNode> children = new ArrayList<>();
+        int boatCapacity = gameConfiguration.getBoatCapacity();
+        boolean fromSourceBank = boatLocation == BoatLocation.SOURCE_BANK;
+        BoatLocation nextBoatLocation = fromSourceBank ? 
+                                        BoatLocation.TARGET_BANK :
+                                        BoatLocation.SOURCE_BANK;
+        
+        // The persons on the bank the boat is at.
+        int availableMissionaries = 
+                fromSourceBank ? 
+                numberOfMissionaries :
+                gameConfiguration.getTotalNumberOfMissionaries() - 
+                numberOfMissionaries;
+        int availableCannibals = 
+                fromSourceBank ?
+                numberOfCannibals :
+                gameConfiguration.getTotalNumberOfCannibals() - 
+                numberOfCannibals;
+        int sign = fromSourceBank ? -1 : 1;
+        
+        for (int m = 0; m <= Math.min(boatCapacity, availableMissionaries); 
+                m++) {
+            for (int c = m == 0 ? 1 : 0; 
+                    c <= Math.min(boatCapacity - m, availableCannibals); 
+                    c++) {
+                int nextNumberOfMissionaries = numberOfMissionaries + sign * m;
+                int nextNumberOfCannibals = numberOfCannibals + sign * c;
+                
+                if (isSafe(nextNumberOfMissionaries, nextNumberOfCannibals)) {
+                    children.add(new StateNode(nextNumberOfMissionaries,
+                                               nextNumberOfCannibals,
+                                               nextBoatLocation,
+                                               gameConfiguration));
+                }
+            }
+        }
+        
+        return children;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        
+        if (o == null || !getClass().equals(o.getClass())) {
+            return false;
+        }
+        
+        StateNode other = (StateNode) o;
+        return numberOfMissionaries == other.numberOfMissionaries &&
+               numberOfCannibals == other.numberOfCannibals &&
+               boatLocation == other.boatLocation &&
+               gameConfiguration.equals(other.gameConfiguration);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(numberOfMissionaries, 
+                            numberOfCannibals, 
+                            boatLocation,
+                            gameConfiguration);
     }
     
-}
\ No newline at end of file
+    @Override
+    public String toString() {
+        return "[m = " + numberOfMissionaries + 
+               ", c = " + numberOfCannibals + 
+               ", boat = " + boatLocation + "]";
+    }
+    
+    /**
+     * Checks whether the given configuration of the source bank leaves 
+     * neither bank with its missionaries outnumbered by the cannibals.
+     */
+    private boolean isSafe(int numberOfMissionaries, int numberOfCannibals) {
+        int numberOfMissionariesOnTargetBank = 
+                gameConfiguration.getTotalNumberOfMissionaries() - 
+                numberOfMissionaries;
+        int numberOfCannibalsOnTargetBank = 
+                gameConfiguration.getTotalNumberOfCannibals() - 
+                numberOfCannibals;
+        
+        return (numberOfMissionaries == 0 || 
+                numberOfMissionaries >= numberOfCannibals) &&
+               (numberOfMissionariesOnTargetBank == 0 || 
+                numberOfMissionariesOnTargetBank >= 
+                numberOfCannibalsOnTargetBank);
+    }
+}
@@ -0,0 +1,156 @@
+package net.coderodde.missionaries;
+
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * This class checks {@link MoveTable} against a direct enumeration of the 
+ * boat capacity and safety rules over a grid of games.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public final class MoveTableTest {
+    
+    private static final int MAXIMUM_MISSIONARIES = 9;
+    private static final int MAXIMUM_CANNIBALS = 9;
+    private static final int MAXIMUM_BOAT_CAPACITY = 6;
+    
+    @Test
+    public void testNumberOfLoads() {
+        for (GameParameters gameParameters : games()) {
+            int expected = 0;
+            
+            for (int m = 0; m <= gameParameters.getTotalNumberOfMissionaries();
+                    m++) {
+                for (int c = 0; c <= gameParameters.getTotalNumberOfCannibals();
+                        c++) {
+                    int load = m + c;
+                    
+                    if (load >= 1 && load <= gameParameters.getBoatCapacity()) {
+                        expected++;
+                    }
+                }
+            }
+            
+            assertEquals(describe(gameParameters),
+                         expected, 
+                         new MoveTable(gameParameters).getNumberOfLoads());
+        }
+    }
+    
+    @Test
+    public void testIsSafe() {
+        for (GameParameters gameParameters : games()) {
+            MoveTable moveTable = new MoveTable(gameParameters);
+            
+            for (int m = 0; m <= gameParameters.getTotalNumberOfMissionaries();
+                    m++) {
+                for (int c = 0; c <= gameParameters.getTotalNumberOfCannibals();
+                        c++) {
+                    assertEquals(describe(gameParameters) + 
+                                         ", m = " + m + ", c = " + c,
+                                 isSafe(gameParameters, m, c),
+                                 moveTable.isSafe(m, c));
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void testExpand() {
+        for (GameParameters gameParameters : games()) {
+            MoveTable moveTable = new MoveTable(gameParameters);
+            int[] successors = new int[moveTable.getNumberOfLoads()];
+            int numberOfStates = 
+                    2 * (gameParameters.getTotalNumberOfMissionaries() + 1) 
+                      * (gameParameters.getTotalNumberOfCannibals() + 1);
+            
+            for (int code = 0; code < numberOfStates; code++) {
+                List<Integer> expected = expand(gameParameters, code);
+                int size = moveTable.expand(code, successors);
+                List<Integer> actual = new ArrayList<>(size);
+                
+                for (int i = 0; i < size; i++) {
+                    actual.add(successors[i]);
+                }
+                
+                assertEquals(describe(gameParameters) + ", code = " + code,
+                             expected, 
+                             actual);
+            }
+        }
+    }
+    
+    private static List<GameParameters> games() {
+        List<GameParameters> games = new ArrayList<>();
+        
+        for (int m = 0; m <= MAXIMUM_MISSIONARIES; m++) {
+            for (int c = 0; c <= MAXIMUM_CANNIBALS; c++) {
+                for (int k = 1; k <= MAXIMUM_BOAT_CAPACITY; k++) {
+                    games.add(new GameParameters(m, c, k));
+                }
+            }
+        }
+        
+        return games;
+    }
+    
+    private static String describe(GameParameters gameParameters) {
+        return "(" + gameParameters.getTotalNumberOfMissionaries() + ", " +
+                     gameParameters.getTotalNumberOfCannibals() + ", " +
+                     gameParameters.getBoatCapacity() + ")";
+    }
+    
+    private static boolean isSafe(GameParameters gameParameters, int m, int c) {
+        int targetMissionaries = gameParameters.getTotalNumberOfMissionaries() 
+                               - m;
+        int targetCannibals = gameParameters.getTotalNumberOfCannibals() - c;
+        
+        return (m == 0 || m >= c) && 
+               (targetMissionaries == 0 || 
+                targetMissionaries >= targetCannibals);
+    }
+    
+    /**
+     * Lists the successor codes of a state by trying every boat load 
+     * {@code (m, c)} with {@code 1 <= m + c <= k} that is available on the 
+     * bank of the boat, in the order of {@code m} and then {@code c}.
+     */
+    private static List<Integer> expand(GameParameters gameParameters, 
+                                        int code) {
+        int totalMissionaries = gameParameters.getTotalNumberOfMissionaries();
+        int totalCannibals = gameParameters.getTotalNumberOfCannibals();
+        int index = code >>> 1;
+        int missionaries = index / (totalCannibals + 1);
+        int cannibals = index % (totalCannibals + 1);
+        boolean boatAtSource = (code & 1) == 0;
+        int availableMissionaries = 
+                boatAtSource ? missionaries : totalMissionaries - missionaries;
+        int availableCannibals = 
+                boatAtSource ? cannibals : totalCannibals - cannibals;
+        int sign = boatAtSource ? -1 : 1;
+        List<Integer> successors = new ArrayList<>();
+        
+        for (int m = 0; m <= availableMissionaries; m++) {
+            for (int c = 0; c <= availableCannibals; c++) {
+                if (m + c < 1 || m + c > gameParameters.getBoatCapacity()) {
+                    continue;
+                }
+                
+                int childMissionaries = missionaries + sign * m;
+                int childCannibals = cannibals + sign * c;
+                
+                if (isSafe(gameParameters, childMissionaries, childCannibals)) {
+                    int childIndex = childMissionaries * (totalCannibals + 1) 
+                                   + childCannibals;
+                    successors.add((childIndex << 1) | (boatAtSource ? 1 : 0));
+                }
+            }
+        }
+        
+        return successors;
+    }
+}
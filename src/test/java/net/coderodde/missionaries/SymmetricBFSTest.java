@@ -0,0 +1,86 @@
+package net.coderodde.missionaries;
+
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * This class checks {@link SymmetricBFS} against {@link BFS} over a grid of
+ * games, including the games with unequal numbers of missionaries and 
+ * cannibals and the ones with an unsafe source state.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public final class SymmetricBFSTest {
+    
+    private static final int MAXIMUM_MISSIONARIES = 8;
+    private static final int MAXIMUM_CANNIBALS = 8;
+    private static final int MAXIMUM_BOAT_CAPACITY = 4;
+    
+    @Test
+    public void testAgreesWithBFS() {
+        for (int m = 0; m <= MAXIMUM_MISSIONARIES; m++) {
+            for (int c = 0; c <= MAXIMUM_CANNIBALS; c++) {
+                for (int k = 1; k <= MAXIMUM_BOAT_CAPACITY; k++) {
+                    check(new GameParameters(m, c, k));
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void testUnsafeSource() {
+        for (int k = 1; k <= MAXIMUM_BOAT_CAPACITY; k++) {
+            GameParameters gameParameters = new GameParameters(1, 2, k);
+            assertNull(searchSymmetric(gameParameters));
+            check(gameParameters);
+        }
+    }
+    
+    private static void check(GameParameters gameParameters) {
+        String game = "(" + gameParameters.getTotalNumberOfMissionaries() + 
+                      ", " + gameParameters.getTotalNumberOfCannibals() + 
+                      ", " + gameParameters.getBoatCapacity() + ")";
+        StateNode source = StateNode.getSourceState(gameParameters);
+        StateNode target = StateNode.getTargetState(gameParameters);
+        List<StateNode> expected = searchBFS(source, target);
+        List<StateNode> path = searchSymmetric(gameParameters);
+        
+        if (expected == null) {
+            assertNull(game, path);
+            return;
+        }
+        
+        assertNotNull(game, path);
+        assertEquals(game, expected.size(), path.size());
+        assertEquals(game, source, path.get(0));
+        assertEquals(game, target, path.get(path.size() - 1));
+        
+        for (int i = 0; i < path.size() - 1; i++) {
+            assertTrue(game + ", step " + i, 
+                       path.get(i).getNeighbors().contains(path.get(i + 1)));
+        }
+    }
+    
+    private static List<StateNode> searchBFS(StateNode source, 
+                                             StateNode target) {
+        try {
+            return BFS.search(source, target);
+        } catch (IllegalStateException ex) {
+            return null;
+        }
+    }
+    
+    private static List<StateNode> searchSymmetric(
+            GameParameters gameParameters) {
+        try {
+            return SymmetricBFS.search(gameParameters);
+        } catch (IllegalStateException ex) {
+            return null;
+        }
+    }
+}